@@ -0,0 +1,307 @@
+package com.ynixon.rotter;
+
+import android.os.Handler;
+import android.view.View;
+import android.widget.Button;
+import android.widget.ImageButton;
+import android.widget.TextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The ticker's two recycled card pages: the one on screen and the next one, bound and laid
+ * out while still invisible. Titles (and the current card's body) are measured ahead of time
+ * on the CPU pool with {@link PrecomputedTextCompat}, so a transition only moves and fades
+ * views that are already laid out — no Hebrew text layout lands on the animation's frames.
+ *
+ * <p>All methods must be called on the UI thread.
+ */
+class CardPager {
+
+    // direction constants
+    static final int DIR_INITIAL = 0;
+    static final int DIR_NEXT    = 1;   // slide left
+    static final int DIR_PREV    = -1;  // slide right
+    static final int DIR_AUTO    = 2;   // fade (auto-advance, no touch)
+
+    /** Name of a direction's transition, for metrics. */
+    static String transitionName(int direction) {
+        switch (direction) {
+            case DIR_NEXT: return "next";
+            case DIR_PREV: return "prev";
+            case DIR_AUTO: return "auto";
+            default:       return "initial";
+        }
+    }
+
+    private static final long FADE_MS  = 500;
+    private static final long SLIDE_MS = 280;
+
+    // Precomputed texts kept for reuse: the neighbourhood of the current card with slack
+    private static final int TITLE_CACHE_SIZE = 8;
+    private static final int BODY_CACHE_SIZE  = 2;
+
+    /** Views of one card page. */
+    static final class Card {
+        final View        root;
+        final TextView    time;
+        final TextView    title;
+        final TextView    newBadge;
+        final TextView    counter;
+        final TextView    description;
+        final Button      link;
+        final ImageButton expand;
+
+        NewsEntry entry;  // whose title is set on this card; null for placeholders
+
+        Card(View root) {
+            this.root   = root;
+            time        = root.findViewById(R.id.tv_time);
+            title       = root.findViewById(R.id.tv_title);
+            newBadge    = root.findViewById(R.id.tv_new_badge);
+            counter     = root.findViewById(R.id.tv_counter);
+            description = root.findViewById(R.id.tv_description);
+            link        = root.findViewById(R.id.btn_link);
+            expand      = root.findViewById(R.id.btn_expand);
+        }
+    }
+
+    private final Card[]     cards;
+    private final EntryState state;
+    private final Handler    handler;
+    private final float      slideDistance;
+    private final PrecomputedTextCompat.Params titleParams;
+    private final PrecomputedTextCompat.Params bodyParams;
+
+    private final Map<NewsEntry, PrecomputedTextCompat> titles = lru(TITLE_CACHE_SIZE);
+    private final Map<NewsEntry, PrecomputedTextCompat> bodies = lru(BODY_CACHE_SIZE);
+    private final Set<NewsEntry> measuring = new HashSet<>();
+
+    private int       front    = 0;
+    private Card      outgoing;   // leaving the screen during a transition, else null
+    private NewsEntry nextUp;     // entry to pre-bind on the hidden card
+
+    CardPager(View pageA, View pageB, EntryState state, Handler handler, float slideDistance) {
+        this.cards         = new Card[] { new Card(pageA), new Card(pageB) };
+        this.state         = state;
+        this.handler       = handler;
+        this.slideDistance = slideDistance;
+        // Both pages inflate the same layout, so one set of metrics fits either
+        titleParams = TextViewCompat.getTextMetricsParams(cards[0].title);
+        bodyParams  = TextViewCompat.getTextMetricsParams(cards[0].description);
+    }
+
+    /** The card on screen (or coming onto it, mid-transition). */
+    Card front() { return cards[front]; }
+
+    Card[] cards() { return cards; }
+
+    /** Puts a non-entry text (loading, error, streamed preview) on the front card. */
+    void showPlaceholder(CharSequence time, CharSequence title) {
+        Card c = front();
+        c.entry = null;
+        if (time != null) c.time.setText(time);
+        c.title.setText(title);
+    }
+
+    /**
+     * Brings {@code e} on screen with the transition for {@code direction}. Uses the hidden
+     * card, pre-bound when {@code e} was the expected next entry; {@code onShown} runs when
+     * the transition completes (not if it is interrupted by another one).
+     */
+    void show(NewsEntry e, CharSequence counter, int direction, Runnable onShown) {
+        settle();
+        Card out = cards[front];
+        Card in  = cards[1 - front];
+        bind(in, e, counter);
+
+        front    = 1 - front;
+        outgoing = out;
+        Runnable finish = () -> {
+            settleOutgoing();
+            if (onShown != null) onShown.run();
+            prebind();
+        };
+
+        in.root.animate().cancel();
+        in.root.setTranslationX(0f);
+        if (direction == DIR_INITIAL) {
+            // First load: simple fade in
+            out.root.animate().cancel();
+            out.root.setVisibility(View.INVISIBLE);
+            in.root.setAlpha(0f);
+            in.root.setVisibility(View.VISIBLE);
+            in.root.animate().alpha(1f).setStartDelay(0).setDuration(FADE_MS)
+                .withEndAction(finish).start();
+            return;
+        }
+
+        if (direction == DIR_AUTO) {
+            // Auto-advance (timer): fade out then fade in
+            in.root.setAlpha(0f);
+            in.root.setVisibility(View.VISIBLE);
+            out.root.animate().alpha(0f).setStartDelay(0).setDuration(FADE_MS).start();
+            in.root.animate().alpha(1f).setStartDelay(FADE_MS).setDuration(FADE_MS)
+                .withEndAction(finish).start();
+            return;
+        }
+
+        // Slide out current card, then slide in new card from opposite side
+        float slideOutX = direction == DIR_NEXT ? -slideDistance : slideDistance;
+        float slideInX  = direction == DIR_NEXT ?  slideDistance : -slideDistance;
+        in.root.setAlpha(1f);
+        in.root.setTranslationX(slideInX);
+        in.root.setVisibility(View.VISIBLE);
+        out.root.animate().translationX(slideOutX).setStartDelay(0).setDuration(SLIDE_MS).start();
+        in.root.animate().translationX(0f).setStartDelay(SLIDE_MS).setDuration(SLIDE_MS)
+            .withEndAction(finish).start();
+    }
+
+    /**
+     * Measures the titles around {@code index} in the background and, once its title is
+     * ready, binds the next entry on the hidden card. Call after the list or position changes.
+     */
+    void prepare(List<NewsEntry> entries, int index) {
+        int n = entries.size();
+        if (n == 0) {
+            nextUp = null;
+            return;
+        }
+        NewsEntry current = entries.get(index);
+        nextUp = n > 1 ? entries.get((index + 1) % n) : null;
+        measureTitle(nextUp);
+        measureTitle(n > 1 ? entries.get((index - 1 + n) % n) : null);
+        measureTitle(current);
+        // A body already in the cache will be shown on expand: measure it too
+        String body = state.getBody(current);
+        if (body != null && !body.isEmpty()) measureBody(current, body);
+        prebind();
+    }
+
+    /**
+     * Shows {@code body} as the front card's description, precomputed when possible.
+     * Null or empty hides the description.
+     */
+    void showBody(NewsEntry entry, CharSequence body) {
+        TextView tv = front().description;
+        if (body == null || body.length() == 0) {
+            tv.setVisibility(View.GONE);
+            return;
+        }
+        PrecomputedTextCompat measured = body instanceof PrecomputedTextCompat
+                ? (PrecomputedTextCompat) body : bodies.get(entry);
+        // A cached measurement only fits if the body hasn't been refetched since
+        if (measured != null && (measured == body || measured.toString().equals(body.toString()))) {
+            TextViewCompat.setPrecomputedText(tv, measured);
+        } else {
+            tv.setText(body);
+        }
+        tv.setVisibility(View.VISIBLE);
+    }
+
+    /** Measures a body for {@link #showBody}; blocking, for use on a worker thread. */
+    PrecomputedTextCompat measureBodyNow(String body) {
+        return measure(body, bodyParams);
+    }
+
+    // ── Binding ──────────────────────────────────────────────────────────────
+
+    /** Sets the card's content for {@code e}; the title is skipped when already bound. */
+    private void bind(Card c, NewsEntry e, CharSequence counter) {
+        if (c.entry != e) {
+            c.time.setText(e.getDate());
+            setTitle(c, e);
+        }
+        c.counter.setText(counter);
+        // Every card starts collapsed; the user must tap expand to see description/link
+        c.expand.setRotation(0f);
+        c.description.setVisibility(View.GONE);
+        c.link.setVisibility(View.GONE);
+        c.newBadge.setVisibility(state.isNew(e) ? View.VISIBLE : View.GONE);
+    }
+
+    private void setTitle(Card c, NewsEntry e) {
+        c.entry = e;
+        PrecomputedTextCompat measured = titles.get(e);
+        if (measured != null) TextViewCompat.setPrecomputedText(c.title, measured);
+        else                  c.title.setText(e.getTitle());
+    }
+
+    /** Binds the expected next entry on the hidden card while nothing is animating. */
+    private void prebind() {
+        if (outgoing != null || nextUp == null) return;
+        Card hidden = cards[1 - front];
+        if (hidden.entry == nextUp || !titles.containsKey(nextUp)) return;
+        hidden.time.setText(nextUp.getDate());
+        setTitle(hidden, nextUp);
+    }
+
+    /** Completes an interrupted transition at once, so a new one starts from rest. */
+    private void settle() {
+        if (outgoing == null) return;
+        Card in = cards[front];
+        in.root.animate().cancel();
+        in.root.setAlpha(1f);
+        in.root.setTranslationX(0f);
+        settleOutgoing();
+    }
+
+    private void settleOutgoing() {
+        if (outgoing == null) return;
+        outgoing.root.animate().cancel();
+        outgoing.root.setVisibility(View.INVISIBLE);
+        outgoing.root.setAlpha(1f);
+        outgoing.root.setTranslationX(0f);
+        outgoing = null;
+    }
+
+    // ── Background measurement ───────────────────────────────────────────────
+
+    private void measureTitle(NewsEntry e) {
+        if (e == null || titles.containsKey(e) || measuring.contains(e)) return;
+        String text = e.getTitle();
+        measuring.add(e);
+        boolean queued = AppExecutors.get().tryCpu(() -> {
+            PrecomputedTextCompat measured = measure(text, titleParams);
+            handler.post(() -> {
+                measuring.remove(e);
+                titles.put(e, measured);
+                prebind();
+            });
+        });
+        if (!queued) measuring.remove(e); // falls back to plain setText when shown
+    }
+
+    private void measureBody(NewsEntry e, String body) {
+        PrecomputedTextCompat have = bodies.get(e);
+        if (have != null && have.toString().equals(body)) return;
+        AppExecutors.get().tryCpu(() -> {
+            PrecomputedTextCompat measured = measure(body, bodyParams);
+            handler.post(() -> bodies.put(e, measured));
+        });
+    }
+
+    private static PrecomputedTextCompat measure(CharSequence text, PrecomputedTextCompat.Params params) {
+        FetchMetrics.enter("text.measure");
+        try {
+            return PrecomputedTextCompat.create(text, params);
+        } finally {
+            FetchMetrics.exit("text.measure");
+        }
+    }
+
+    private static <K, V> Map<K, V> lru(int capacity) {
+        return new LinkedHashMap<K, V>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
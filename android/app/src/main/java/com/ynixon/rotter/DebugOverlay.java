@@ -0,0 +1,71 @@
+package com.ynixon.rotter;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.view.View;
+import android.widget.TextView;
+
+/**
+ * Hidden diagnostics panel over the ticker. Long-pressing the footer toggles it; while shown
+ * it re-renders the report once a second, and "export" hands the same text to the share
+ * sheet so it can be pasted into a bug report.
+ */
+class DebugOverlay {
+
+    /** Produces the current report text; called on the UI thread. */
+    interface Source {
+        String report();
+    }
+
+    private static final long REFRESH_MS = 1000;
+
+    private final View     panel;
+    private final TextView text;
+    private final Handler  handler;
+    private final Source   source;
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            text.setText(source.report());
+            handler.postDelayed(this, REFRESH_MS);
+        }
+    };
+
+    DebugOverlay(View panel, TextView text, View exportButton, View closeButton,
+                 Handler handler, Source source) {
+        this.panel   = panel;
+        this.text    = text;
+        this.handler = handler;
+        this.source  = source;
+        exportButton.setOnClickListener(v -> export());
+        closeButton.setOnClickListener(v -> hide());
+    }
+
+    boolean isShown() { return panel.getVisibility() == View.VISIBLE; }
+
+    void toggle() {
+        if (isShown()) hide();
+        else           show();
+    }
+
+    void show() {
+        panel.setVisibility(View.VISIBLE);
+        handler.removeCallbacks(refresh);
+        refresh.run();
+    }
+
+    void hide() {
+        handler.removeCallbacks(refresh);
+        panel.setVisibility(View.GONE);
+    }
+
+    private void export() {
+        Context context = panel.getContext();
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("text/plain");
+        send.putExtra(Intent.EXTRA_SUBJECT, "Rotter News diagnostics");
+        send.putExtra(Intent.EXTRA_TEXT, source.report());
+        context.startActivity(Intent.createChooser(send, null));
+    }
+}
@@ -0,0 +1,112 @@
+package com.ynixon.rotter;
+
+import android.view.Choreographer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Frame times of the ticker transitions, from {@link Choreographer} vsync callbacks that run
+ * only while a transition is on screen. Frames longer than 1.5 refresh intervals count as
+ * janky, longer than {@link #FROZEN_MS} as frozen; each slow frame is attributed to the
+ * background stages ({@link FetchMetrics#enter}) that were running during it.
+ *
+ * <p>UI thread only.
+ */
+class FrameMonitor implements Choreographer.FrameCallback {
+
+    private static final long FROZEN_MS = 700;
+
+    /** Totals for one transition type. */
+    private static final class Stats {
+        long transitions;
+        long frames;
+        long totalNanos;
+        long maxNanos;
+        long janky;
+        long frozen;
+        final Map<String, Integer> causes = new TreeMap<>();
+    }
+
+    private final long jankNanos;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    private Stats current;         // transition being measured, null when idle
+    private long  lastFrameNanos;  // vsync time of the previous frame, 0 before the first
+
+    /** @param refreshRateHz the display's refresh rate, e.g. 60 */
+    FrameMonitor(float refreshRateHz) {
+        float hz = refreshRateHz >= 10f ? refreshRateHz : 60f;
+        jankNanos = (long) (1_000_000_000L / hz * 1.5);
+    }
+
+    /** Starts measuring a transition of type {@code name}; ends one still being measured. */
+    void begin(String name) {
+        end();
+        Stats s = stats.get(name);
+        if (s == null) {
+            s = new Stats();
+            stats.put(name, s);
+        }
+        s.transitions++;
+        current = s;
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void end() {
+        if (current == null) return;
+        Choreographer.getInstance().removeFrameCallback(this);
+        current = null;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (current == null) return;
+        if (lastFrameNanos != 0) record(current, frameTimeNanos - lastFrameNanos, lastFrameNanos);
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void record(Stats s, long nanos, long frameStartNanos) {
+        s.frames++;
+        s.totalNanos += nanos;
+        if (nanos > s.maxNanos) s.maxNanos = nanos;
+        if (nanos < jankNanos) return;
+        s.janky++;
+        if (nanos >= FROZEN_MS * 1_000_000L) s.frozen++;
+        String cause = FetchMetrics.activeSince(frameStartNanos);
+        if (cause.isEmpty()) cause = "idle";
+        Integer n = s.causes.get(cause);
+        s.causes.put(cause, n == null ? 1 : n + 1);
+    }
+
+    /** One block per transition type: frame counts, slow frames and what ran alongside them. */
+    String report() {
+        if (stats.isEmpty()) return "no transitions yet\n";
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            sb.append(e.getKey()).append(": ").append(s.transitions).append(" transitions, ")
+              .append(s.frames).append(" frames");
+            if (s.frames > 0) {
+                sb.append(", avg ").append(ms(s.totalNanos / s.frames))
+                  .append(" max ").append(ms(s.maxNanos))
+                  .append(", janky ").append(s.janky)
+                  .append(" (").append(s.janky * 100 / s.frames).append("%)")
+                  .append(", frozen ").append(s.frozen);
+            }
+            sb.append('\n');
+            for (Map.Entry<String, Integer> c : s.causes.entrySet()) {
+                sb.append("  janky during ").append(c.getKey()).append(": ").append(c.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String ms(long nanos) {
+        long tenths = nanos / 100_000;
+        return (tenths / 10) + "." + (tenths % 10) + "ms";
+    }
+}
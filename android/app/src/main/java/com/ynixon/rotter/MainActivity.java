@@ -2,10 +2,14 @@ package com.ynixon.rotter;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.hardware.display.DisplayManager;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
+import android.view.Display;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
@@ -19,38 +23,43 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class MainActivity extends AppCompatActivity {
 
     private static final long DISPLAY_MS = 5000;
-    private static final long FADE_MS    = 500;
-    private static final long SLIDE_MS   = 280;
-    private static final long REFRESH_INTERVAL_MIN = 3;
+    private static final long   REFRESH_MIN_MS     = TimeUnit.MINUTES.toMillis(1);
+    private static final long   REFRESH_MAX_MS     = TimeUnit.MINUTES.toMillis(20);
+    private static final long   REFRESH_INITIAL_MS = TimeUnit.MINUTES.toMillis(3);
+    private static final double REFRESH_JITTER     = 0.15;
     private static final int  SWIPE_VELOCITY_THRESHOLD = 300;
     private static final int  SWIPE_DISTANCE_THRESHOLD = 80;
+    private static final String LOG_TAG = "RotterNews";
+    private static final String SNAPSHOT_FILE = "feed_snapshot.bin";
+    private static final String SEEN_FILE     = "seen_items.bin";
+    private static final String BODY_CACHE_DIR = "article_bodies";
+    private static final int    BODY_CACHE_MEMORY_CHARS = 256 * 1024;
+    private static final long   BODY_CACHE_DISK_BYTES   = 4L * 1024 * 1024;
+    private static final long   BODY_CACHE_TTL_MS       = TimeUnit.HOURS.toMillis(24);
+    private static final int    PREFETCH_DEPTH           = 3;
+    private static final int    PREFETCH_MIN_BATTERY_PCT = 20;
+    private static final long   SEARCH_MAX_AGE_MS        = TimeUnit.HOURS.toMillis(24);
+
+    // Process-wide like RssFetcher's window, so bodies indexed so far survive recreation
+    private static final SearchIndex searchIndex = new SearchIndex(SEARCH_MAX_AGE_MS);
 
-    // direction constants
-    private static final int DIR_INITIAL = 0;
-    private static final int DIR_NEXT    = 1;   // slide left
-    private static final int DIR_PREV    = -1;  // slide right
-    private static final int DIR_AUTO    = 2;   // fade (auto-advance, no touch)
-
-    private TextView tvTime;
-    private TextView tvTitle;
-    private TextView tvNewBadge;
-    private TextView tvCounter;
-    private TextView tvDescription;
-    private Button btnLink;
     private Button btnRefresh;
     private ImageButton btnMiniRefresh;
     private ImageButton btnTheme;
-    private ImageButton btnExpand;
     private View tickerCard;
+    private CardPager pager;
+    private FrameMonitor frameMonitor;
     private boolean isExpanded = false;
 
     private static final int[] HOURS_OPTIONS = {1, 2, 4, 8, 16};
@@ -58,20 +67,38 @@ public class MainActivity extends AppCompatActivity {
 
     private final Handler handler = new Handler(Looper.getMainLooper());
     private Runnable nextTick;
-    private ScheduledExecutorService refreshScheduler;
-
-    private List<NewsEntry> entries = new ArrayList<>();
+    private ScheduledFuture<?> refreshTask;
+    private long lastRefreshMs = 0;
+    private boolean visible = false;
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler(
+            REFRESH_MIN_MS, REFRESH_MAX_MS, REFRESH_INITIAL_MS, REFRESH_JITTER);
+    private BodyCache bodyCache;
+    private BodyPrefetcher prefetcher;
+    private PrefetchGate prefetchGate;
+    private ArticleFetchCoordinator articleLoader;
+    private ArticleFetchCoordinator.Ticket bodyTicket; // expand load for the current card
+    private DebugOverlay debugOverlay;
+    private SearchPanel searchPanel;
+
+    // Published by the UI thread, read from anywhere; tickerIndex indexes the current one
+    private final AtomicReference<TickerSnapshot> feed =
+            new AtomicReference<>(TickerSnapshot.EMPTY);
+    private final EntryState state = new EntryState();
     private int tickerIndex = 0;
     private boolean isRefreshing = false;
+    private boolean showingOutdated = false; // saved entries older than the chosen hours
     private boolean isNightMode;
-    private long lastSeenTimestamp;
+    private final SeenSet seen = new SeenSet();
+    private volatile boolean seenLoaded = false;
+    // Newest timestamp shown by versions before the seen-set; 0 once migrated
+    private long legacySeenTs;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         SharedPreferences prefs = getPreferences(MODE_PRIVATE);
         isNightMode = prefs.getBoolean("night_mode", true);
-        lastSeenTimestamp = prefs.getLong("last_seen_ts", 0);
         hoursBack = prefs.getInt("hours_back", 4);
+        legacySeenTs = prefs.getLong("last_seen_ts", 0);
 
         AppCompatDelegate.setDefaultNightMode(
             isNightMode ? AppCompatDelegate.MODE_NIGHT_YES : AppCompatDelegate.MODE_NIGHT_NO
@@ -80,21 +107,34 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        tvTime        = findViewById(R.id.tv_time);
-        tvTitle       = findViewById(R.id.tv_title);
-        tvNewBadge    = findViewById(R.id.tv_new_badge);
-        tvCounter     = findViewById(R.id.tv_counter);
-        tvDescription = findViewById(R.id.tv_description);
-        btnLink       = findViewById(R.id.btn_link);
+        if (!BuildConfig.GATEWAY_URL.isEmpty()) {
+            // Built against a feed gateway: one shared upstream poll instead of one per install
+            RssFetcher.setFeedUrl(BuildConfig.GATEWAY_URL + "/feed.xml");
+            ArticleFetcher.setGateway(BuildConfig.GATEWAY_URL);
+        }
+        if (!BuildConfig.EXTRA_FEEDS.isEmpty()) {
+            RssFetcher.setExtraFeeds(Arrays.asList(BuildConfig.EXTRA_FEEDS.split(",")));
+        }
+
+        bodyCache = new BodyCache(new File(getCacheDir(), BODY_CACHE_DIR),
+                BODY_CACHE_MEMORY_CHARS, BODY_CACHE_DISK_BYTES, BODY_CACHE_TTL_MS);
+        AppExecutors executors = AppExecutors.get();
+        articleLoader = new ArticleFetchCoordinator(bodyCache, executors.io(), executors.cpu());
+        prefetchGate = new PrefetchGate(this, PREFETCH_MIN_BATTERY_PCT);
+        prefetcher = new BodyPrefetcher(bodyCache, state, prefetchGate, PREFETCH_DEPTH,
+                articleLoader);
+        // Every body loaded, for expand or prefetch, becomes searchable
+        articleLoader.setBodyListener(searchIndex::addBody);
+
         btnRefresh    = findViewById(R.id.btn_refresh);
         btnMiniRefresh= findViewById(R.id.btn_mini_refresh);
         btnTheme      = findViewById(R.id.btn_theme);
-        btnExpand     = findViewById(R.id.btn_expand);
         tickerCard    = findViewById(R.id.ticker_card);
+        pager = new CardPager(findViewById(R.id.card_a), findViewById(R.id.card_b), state,
+                handler, getResources().getDisplayMetrics().widthPixels);
 
-        tvTitle.setText(R.string.loading);
-        tvNewBadge.setVisibility(View.GONE);
-        btnLink.setVisibility(View.GONE);
+        pager.showPlaceholder(null, getString(R.string.loading));
+        frameMonitor = new FrameMonitor(display().getRefreshRate());
 
         // ── Hours range spinner ────────────────────────────────────────
         Spinner spinnerHours = findViewById(R.id.spinner_hours);
@@ -114,7 +154,11 @@ public class MainActivity extends AppCompatActivity {
                 if (selected != hoursBack) {
                     hoursBack = selected;
                     getPreferences(MODE_PRIVATE).edit().putInt("hours_back", hoursBack).apply();
-                    fetchFeed(true);
+                    // The fetch layer keeps the widest window; narrowing or widening within
+                    // it is a local range query
+                    List<NewsEntry> local = RssFetcher.query(hoursBack);
+                    if (local != null && !local.isEmpty()) showWindow(local);
+                    else                                   fetchFeed(true);
                 }
             }
             @Override public void onNothingSelected(AdapterView<?> parent) {}
@@ -123,6 +167,21 @@ public class MainActivity extends AppCompatActivity {
         TextView tvFooter = findViewById(R.id.footer);
         tvFooter.setText(getString(R.string.footer) + " • v" + BuildConfig.VERSION_NAME + " (" + BuildConfig.VERSION_CODE + ")");
 
+        // Hidden diagnostics: long-press the footer
+        debugOverlay = new DebugOverlay(findViewById(R.id.debug_overlay),
+                findViewById(R.id.tv_debug), findViewById(R.id.btn_debug_export),
+                findViewById(R.id.btn_debug_close), handler, this::debugReport);
+        tvFooter.setOnLongClickListener(v -> {
+            debugOverlay.toggle();
+            return true;
+        });
+
+        searchPanel = new SearchPanel(findViewById(R.id.search_panel),
+                findViewById(R.id.search_query), findViewById(R.id.search_status),
+                findViewById(R.id.search_results), handler, searchIndex, this::onSearchPicked);
+        findViewById(R.id.btn_search).setOnClickListener(v -> searchPanel.toggle());
+        getOnBackPressedDispatcher().addCallback(this, searchPanel.getBackCallback());
+
         btnRefresh.setOnClickListener(v -> triggerRefresh());
         btnMiniRefresh.setOnClickListener(v -> triggerRefresh());
 
@@ -134,72 +193,44 @@ public class MainActivity extends AppCompatActivity {
             );
         });
 
-        btnLink.setOnClickListener(v -> {
-            if (tickerIndex < entries.size()) {
-                String url = entries.get(tickerIndex).getLink();
-                if (url != null && !url.isEmpty()) {
-                    startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(url)));
-                }
-            }
-        });
-
-        btnExpand.setOnClickListener(v -> {
-            isExpanded = !isExpanded;
-            btnExpand.animate().rotation(isExpanded ? 180f : 0f).setDuration(200).start();
-            // Give the user a fresh countdown after interacting with the card
-            cancelTick();
-            scheduleNextTick();
-            if (isExpanded && tickerIndex < entries.size()) {
-                NewsEntry cur = entries.get(tickerIndex);
-                // Show link button immediately if we have a URL
-                String url = cur.getLink();
-                btnLink.setVisibility(
-                    (url != null && !url.isEmpty()) ? View.VISIBLE : View.GONE);
-                // Show body: use cache if available, otherwise fetch asynchronously
-                if (cur.isBodyFetched()) {
-                    showBodyText(cur.getCachedBody());
-                } else {
-                    tvDescription.setText(R.string.loading_body);
-                    tvDescription.setVisibility(View.VISIBLE);
-                    fetchArticleBody(cur);
-                }
-            } else {
-                tvDescription.setVisibility(View.GONE);
-                btnLink.setVisibility(View.GONE);
-            }
-        });
-
+        // Both card pages share the handlers; they always act on the card in front
+        for (CardPager.Card card : pager.cards()) {
+            card.link.setOnClickListener(v -> onLinkClicked());
+            card.expand.setOnClickListener(v -> onExpandClicked());
+        }
         // Swipe gesture: left → next, right → previous
         GestureDetector gestureDetector = new GestureDetector(this, new GestureDetector.SimpleOnGestureListener() {
             @Override
             public boolean onSingleTapUp(MotionEvent e) {
-                if (entries.isEmpty()) return false;
+                int n = feed.get().size();
+                if (n == 0) return false;
                 cancelTick();
                 if (e.getX() < tickerCard.getWidth() / 2f) {
                     // tap left half → previous
-                    tickerIndex = (tickerIndex - 1 + entries.size()) % entries.size();
-                    showEntry(DIR_PREV);
+                    tickerIndex = (tickerIndex - 1 + n) % n;
+                    showEntry(CardPager.DIR_PREV);
                 } else {
                     // tap right half → next
-                    tickerIndex = (tickerIndex + 1) % entries.size();
-                    showEntry(DIR_NEXT);
+                    tickerIndex = (tickerIndex + 1) % n;
+                    showEntry(CardPager.DIR_NEXT);
                 }
                 return true;
             }
 
             @Override
             public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-                if (entries.isEmpty()) return false;
+                int n = feed.get().size();
+                if (n == 0) return false;
                 float distanceX = e2.getX() - e1.getX();
                 if (Math.abs(distanceX) > SWIPE_DISTANCE_THRESHOLD
                         && Math.abs(velocityX) > SWIPE_VELOCITY_THRESHOLD) {
                     cancelTick();
                     if (velocityX < 0) {
-                        tickerIndex = (tickerIndex + 1) % entries.size();
-                        showEntry(DIR_NEXT);
+                        tickerIndex = (tickerIndex + 1) % n;
+                        showEntry(CardPager.DIR_NEXT);
                     } else {
-                        tickerIndex = (tickerIndex - 1 + entries.size()) % entries.size();
-                        showEntry(DIR_PREV);
+                        tickerIndex = (tickerIndex - 1 + n) % n;
+                        showEntry(CardPager.DIR_PREV);
                     }
                     return true;
                 }
@@ -212,10 +243,56 @@ public class MainActivity extends AppCompatActivity {
             return true;
         });
 
+        restoreSnapshot();
         fetchFeed(false);
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        visible = true;
+        prefetchGate.start();
         startAutoRefresh();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // No background polling or prefetch while the app isn't visible
+        visible = false;
+        stopAutoRefresh();
+        debugOverlay.hide();
+        prefetcher.cancelAll();
+        prefetchGate.stop();
+        AppExecutors.get().tryIo(() -> seen.save(new File(getFilesDir(), SEEN_FILE)));
+        frameMonitor.end();
+        Log.i(LOG_TAG, "ticker frames\n" + frameMonitor.report());
+    }
+
+    /** The display this activity is on; the default display before API 30. */
+    private Display display() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) return getDisplay();
+        DisplayManager dm = (DisplayManager) getSystemService(DISPLAY_SERVICE);
+        return dm.getDisplay(Display.DEFAULT_DISPLAY);
+    }
+
+    /** Cold start: show the last saved feed right away; the network result replaces it. */
+    private void restoreSnapshot() {
+        FeedDiskCache.Snapshot snap = FeedDiskCache.load(new File(getFilesDir(), SNAPSHOT_FILE));
+        if (snap == null || snap.entries.isEmpty()) return;
+        RssFetcher.restoreValidators(snap.etag, snap.lastModified, snap.entries, snap.hoursBack);
+        AppExecutors.get().tryIo(() -> searchIndex.update(snap.entries, System.currentTimeMillis()));
+        List<NewsEntry> local = RssFetcher.query(hoursBack);
+        // A snapshot older than the chosen hours has nothing left in the window; offline,
+        // the saved headlines are still better than an empty ticker
+        boolean outdated = local == null || local.isEmpty();
+        if (publish(outdated ? snap.entries : local).isEmpty()) return;
+        showingOutdated = outdated;
+        if (outdated) Toast.makeText(this, R.string.saved_outdated, Toast.LENGTH_SHORT).show();
+        tickerIndex = 0;
+        showEntry(CardPager.DIR_INITIAL);
+    }
+
     private void triggerRefresh() {
         if (!isRefreshing) fetchFeed(true);
     }
@@ -223,146 +300,268 @@ public class MainActivity extends AppCompatActivity {
     private void fetchFeed(boolean showSpinner) {
         if (isRefreshing) return;
         isRefreshing = true;
-        if (showSpinner) tvTitle.setText(R.string.loading);
-
-        Executors.newSingleThreadExecutor().execute(() -> {
-            List<NewsEntry> result = RssFetcher.fetch(hoursBack);
+        lastRefreshMs = System.currentTimeMillis();
+        if (showSpinner) pager.showPlaceholder(null, getString(R.string.loading));
+
+        boolean queued = AppExecutors.get().tryIo(() -> {
+            // The stored seen-set must be in before this fetch's additions are badged
+            if (!seenLoaded) {
+                seen.merge(SeenSet.load(new File(getFilesDir(), SEEN_FILE)));
+                seenLoaded = true;
+            }
+            // Put the first headline on screen while the rest of the feed is still downloading
+            final boolean[] previewed = {false};
+            List<NewsEntry> result = RssFetcher.fetch(hoursBack, entry -> {
+                if (previewed[0]) return;
+                previewed[0] = true;
+                handler.post(() -> showPreview(entry));
+            });
+            // Persist the whole retained window, not just the hours on screen
+            FeedIndex toSave = (result != null && !result.isEmpty()) ? RssFetcher.getIndex() : null;
             handler.post(() -> {
                 isRefreshing = false;
+                onPollFinished(result);
                 if (result != null && !result.isEmpty()) {
+                    showingOutdated = false;
                     onEntriesLoaded(result);
-                } else if (entries.isEmpty()) {
-                    tvTitle.setText(R.string.error_loading);
+                } else if (feed.get().isEmpty()) {
+                    pager.showPlaceholder(null, getString(R.string.error_loading));
                     Toast.makeText(this, R.string.error_loading, Toast.LENGTH_SHORT).show();
+                } else if (showSpinner || showingOutdated) {
+                    // Still showing the saved/previous feed; tell the user it may be stale
+                    Toast.makeText(this, R.string.offline_saved, Toast.LENGTH_SHORT).show();
                 }
             });
+            if (toSave != null) {
+                searchIndex.update(toSave.all(), System.currentTimeMillis());
+                FeedDiskCache.save(new File(getFilesDir(), SNAPSHOT_FILE),
+                    new FeedDiskCache.Snapshot(toSave.all(), toSave.getHours(),
+                        RssFetcher.getETag(), RssFetcher.getLastModified(),
+                        System.currentTimeMillis()));
+            }
         });
+        if (!queued) {
+            isRefreshing = false;
+            onPollFinished(null);
+        }
     }
 
-    private void onEntriesLoaded(List<NewsEntry> loaded) {
-        long maxTs = 0;
-        for (NewsEntry e : loaded) {
-            e.setIsNew(e.getTimestamp() > lastSeenTimestamp);
-            if (e.getTimestamp() > maxTs) maxTs = e.getTimestamp();
-        }
+    /** Feeds the poll outcome to the scheduler and plans the next poll from now. */
+    private void onPollFinished(List<NewsEntry> result) {
+        refreshScheduler.onPoll(result);
+        // Any poll, manual ones included, restarts the countdown
+        if (visible) scheduleRefresh(refreshScheduler.nextDelayMs());
+    }
 
-        loaded.sort((a, b) -> {
-            if (a.isNew() != b.isNew()) return a.isNew() ? -1 : 1;
-            return Long.compare(b.getTimestamp(), a.getTimestamp());
-        });
+    /** Shows a streamed entry on the empty card; superseded by onEntriesLoaded. */
+    private void showPreview(NewsEntry e) {
+        if (!feed.get().isEmpty()) return;
+        pager.showPlaceholder(e.getDate(), e.getTitle());
+    }
 
-        int newCount = 0;
-        for (NewsEntry e : loaded) if (e.isNew()) newCount++;
+    /**
+     * Makes {@code list} the ticker's entries as a new snapshot and drops the side state of
+     * entries that left it. UI thread only.
+     */
+    private TickerSnapshot publish(List<NewsEntry> list) {
+        TickerSnapshot next = feed.get().next(list);
+        feed.set(next);
+        state.retain(next.entries);
+        return next;
+    }
 
-        entries = loaded;
-        tickerIndex = 0;
+    /**
+     * Merges a refreshed feed into the ticker: existing entries keep their instances and
+     * state, and the card being read stays on screen unless it dropped out of the window.
+     */
+    private void onEntriesLoaded(List<NewsEntry> loaded) {
+        List<NewsEntry> merged = new ArrayList<>(feed.get().entries);
+        boolean wasEmpty = merged.isEmpty();
+        FeedMerger.Result merge = FeedMerger.merge(merged, loaded, tickerIndex);
 
-        if (maxTs > lastSeenTimestamp) {
-            lastSeenTimestamp = maxTs;
-            getPreferences(MODE_PRIVATE).edit().putLong("last_seen_ts", lastSeenTimestamp).apply();
+        // Only additions can be new; existing entries keep their badge state. New means
+        // never on screen, whatever its timestamp (backdated and re-published items too)
+        long nowMs = System.currentTimeMillis();
+        int newCount = 0;
+        for (NewsEntry e : merge.added) {
+            if (e.getTimestamp() <= legacySeenTs) {
+                // Shown under the old timestamp watermark: seed the seen-set instead of
+                // badging the whole feed once after the upgrade
+                seen.add(e, nowMs);
+                continue;
+            }
+            if (seen.contains(e, nowMs)) continue;
+            state.setNew(e, true);
+            newCount++;
         }
+        if (legacySeenTs > 0 && !loaded.isEmpty()) {
+            legacySeenTs = 0;
+            getPreferences(MODE_PRIVATE).edit().remove("last_seen_ts").apply();
+        }
+        TickerSnapshot ticker = publish(merged);
+        tickerIndex = merge.index;
 
         if (newCount > 0) {
             Toast.makeText(this,
                 newCount + " " + getString(R.string.new_headlines),
                 Toast.LENGTH_SHORT).show();
         }
-
-        cancelTick();
-        showEntry(DIR_INITIAL);
+        rebind(ticker, merge, wasEmpty);
     }
 
     /**
-     * @param direction DIR_NEXT (slide left), DIR_PREV (slide right), DIR_INITIAL (fade in)
+     * Shows another hours window of the entries already fetched (the hours spinner). Unlike
+     * {@link #onEntriesLoaded} nothing is new here: widening only brings older, already
+     * published entries into view, so there are no badges and no toast.
      */
-    private void showEntry(int direction) {
-        if (entries.isEmpty()) return;
-        NewsEntry e = entries.get(tickerIndex);
-        float screenWidth = getResources().getDisplayMetrics().widthPixels;
-
-        if (direction == DIR_INITIAL) {
-            // First load: simple fade in
-            tickerCard.setAlpha(0f);
-            applyContent(e);
-            tickerCard.animate().alpha(1f).setDuration(FADE_MS)
-                .withEndAction(this::scheduleNextTick).start();
-            return;
-        }
+    private void showWindow(List<NewsEntry> window) {
+        List<NewsEntry> merged = new ArrayList<>(feed.get().entries);
+        boolean wasEmpty = merged.isEmpty();
+        FeedMerger.Result merge = FeedMerger.merge(merged, window, tickerIndex);
+        TickerSnapshot ticker = publish(merged);
+        tickerIndex = merge.index;
+        rebind(ticker, merge, wasEmpty);
+    }
 
-        if (direction == DIR_AUTO) {
-            // Auto-advance (timer): fade out then fade in
-            tickerCard.animate().alpha(0f).setDuration(FADE_MS)
-                .withEndAction(() -> {
-                    applyContent(e);
-                    tickerCard.animate().alpha(1f).setDuration(FADE_MS)
-                        .withEndAction(this::scheduleNextTick).start();
-                }).start();
-            return;
+    /** Puts the ticker on screen again after {@code merge} changed its entries. */
+    private void rebind(TickerSnapshot ticker, FeedMerger.Result merge, boolean wasEmpty) {
+        // A placeholder (loading/preview) on the card also needs the entry put back
+        if (wasEmpty || !merge.keptCurrent || pager.front().entry != ticker.get(tickerIndex)) {
+            cancelTick();
+            showEntry(CardPager.DIR_INITIAL);
+        } else if (!merge.added.isEmpty() || merge.removed > 0) {
+            // Same card, different neighbours: refresh the counter and the prefetch window
+            // without interrupting the countdown
+            pager.front().counter.setText(counterText());
+            prefetcher.prefetch(ticker.entries, tickerIndex, 1);
+            pager.prepare(ticker.entries, tickerIndex);
         }
-
-        // Slide out current card, then slide in new card from opposite side
-        float slideOutX = direction == DIR_NEXT ? -screenWidth : screenWidth;
-        float slideInX  = direction == DIR_NEXT ?  screenWidth : -screenWidth;
-
-        tickerCard.animate()
-            .translationX(slideOutX)
-            .setDuration(SLIDE_MS)
-            .withEndAction(() -> {
-                applyContent(e);
-                tickerCard.setTranslationX(slideInX);
-                tickerCard.animate()
-                    .translationX(0f)
-                    .setDuration(SLIDE_MS)
-                    .withEndAction(this::scheduleNextTick)
-                    .start();
-            })
-            .start();
     }
 
-    private void applyContent(NewsEntry e) {
-        tvTime.setText(e.getDate());
-        tvTitle.setText(e.getTitle());
-        tvCounter.setText((tickerIndex + 1) + " / " + entries.size());
+    /**
+     * @param direction one of the {@link CardPager} DIR_ constants
+     */
+    private void showEntry(int direction) {
+        TickerSnapshot ticker = feed.get();
+        if (ticker.isEmpty()) return;
+        NewsEntry e = ticker.get(tickerIndex);
+        cancelBodyLoad(); // leaving the card: its body is no longer wanted
+        // Warm the body cache for the cards that come next in the direction of travel
+        prefetcher.prefetch(ticker.entries, tickerIndex, direction == CardPager.DIR_PREV ? -1 : 1);
+
         // Collapse on every new message; user must tap expand to see description/link
         isExpanded = false;
-        btnExpand.setRotation(0f);
-        tvDescription.setVisibility(View.GONE);
-        btnLink.setVisibility(View.GONE);
-        if (e.isNew()) {
-            tvNewBadge.setVisibility(View.VISIBLE);
-            e.setIsNew(false);
+        frameMonitor.begin(CardPager.transitionName(direction));
+        pager.show(e, counterText(), direction, () -> {
+            frameMonitor.end();
+            scheduleNextTick();
+        });
+        // The badge is already bound; it shows once per entry
+        state.setNew(e, false);
+        seen.add(e, System.currentTimeMillis());
+        pager.prepare(ticker.entries, tickerIndex);
+    }
+
+    private String counterText() {
+        return (tickerIndex + 1) + " / " + feed.get().size();
+    }
+
+    private void onLinkClicked() {
+        TickerSnapshot ticker = feed.get();
+        if (tickerIndex < ticker.size()) {
+            String url = ticker.get(tickerIndex).getLink();
+            if (url != null && !url.isEmpty()) {
+                startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(url)));
+            }
+        }
+    }
+
+    private void onExpandClicked() {
+        CardPager.Card card = pager.front();
+        isExpanded = !isExpanded;
+        card.expand.animate().rotation(isExpanded ? 180f : 0f).setDuration(200).start();
+        // Give the user a fresh countdown after interacting with the card
+        cancelTick();
+        scheduleNextTick();
+        TickerSnapshot ticker = feed.get();
+        if (isExpanded && tickerIndex < ticker.size()) {
+            NewsEntry cur = ticker.get(tickerIndex);
+            // Show link button immediately if we have a URL
+            String url = cur.getLink();
+            card.link.setVisibility(
+                (url != null && !url.isEmpty()) ? View.VISIBLE : View.GONE);
+            // Show body: use cache if available, otherwise fetch asynchronously
+            String body = state.getBody(cur);
+            if (body == null) {
+                body = bodyCache.getFromMemory(url);
+                if (body != null) state.setBody(cur, body);
+            }
+            if (body != null) {
+                pager.showBody(cur, body);
+            } else {
+                card.description.setText(R.string.loading_body);
+                card.description.setVisibility(View.VISIBLE);
+                fetchArticleBody(cur);
+            }
         } else {
-            tvNewBadge.setVisibility(View.GONE);
+            card.description.setVisibility(View.GONE);
+            card.link.setVisibility(View.GONE);
+        }
+    }
+
+    /** Jumps the ticker to a search result, or opens it if it's outside the hours shown. */
+    private void onSearchPicked(NewsEntry picked) {
+        TickerSnapshot ticker = feed.get();
+        for (int i = 0; i < ticker.size(); i++) {
+            if (ticker.get(i).getKey().equals(picked.getKey())) {
+                cancelTick();
+                tickerIndex = i;
+                showEntry(CardPager.DIR_INITIAL);
+                return;
+            }
+        }
+        String url = picked.getLink();
+        if (url != null && !url.isEmpty()) {
+            startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(url)));
         }
     }
 
     private void fetchArticleBody(NewsEntry entry) {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            String body = ArticleFetcher.fetchBody(entry.getLink());
-            entry.setCachedBody(body != null ? body : "");
-            handler.post(() -> {
-                // Only update UI if this entry is still the one being shown
-                if (tickerIndex < entries.size() && entries.get(tickerIndex) == entry && isExpanded) {
-                    showBodyText(entry.getCachedBody());
-                }
-            });
-        });
+        // Request before cancelling the previous ticket, so re-expanding the same card joins
+        // its load in flight instead of aborting and restarting it
+        ArticleFetchCoordinator.Ticket previous = bodyTicket;
+        bodyTicket = articleLoader.request(entry.getLink(), body -> deliverBody(entry, body));
+        if (previous != null) previous.cancel();
     }
 
-    private void showBodyText(String body) {
-        if (body != null && !body.isEmpty()) {
-            tvDescription.setText(body);
-            tvDescription.setVisibility(View.VISIBLE);
-        } else {
-            tvDescription.setVisibility(View.GONE);
+    private void cancelBodyLoad() {
+        if (bodyTicket != null) {
+            bodyTicket.cancel();
+            bodyTicket = null;
         }
     }
 
+    private void deliverBody(NewsEntry entry, String body) {
+        state.setBody(entry, body);
+        // Still on the worker thread: measure the text here rather than on the UI thread
+        CharSequence measured = body != null && !body.isEmpty() ? pager.measureBodyNow(body) : null;
+        handler.post(() -> {
+            // Only update UI if this entry is still the one being shown; the snapshot may
+            // have been replaced since the load started
+            TickerSnapshot ticker = feed.get();
+            if (tickerIndex < ticker.size() && ticker.get(tickerIndex) == entry && isExpanded) {
+                pager.showBody(entry, measured != null ? measured : state.getBody(entry));
+            }
+        });
+    }
+
     private void scheduleNextTick() {
         long delay = isExpanded ? DISPLAY_MS * 2 : DISPLAY_MS;
         nextTick = () -> {
-            tickerIndex = (tickerIndex + 1) % entries.size();
-            showEntry(DIR_AUTO);
+            int n = feed.get().size();
+            if (n == 0) return;
+            tickerIndex = (tickerIndex + 1) % n;
+            showEntry(CardPager.DIR_AUTO);
         };
         handler.postDelayed(nextTick, delay);
     }
@@ -374,12 +573,68 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /** Schedules periodic refresh; after a long stop the first poll fires right away. */
     private void startAutoRefresh() {
-        refreshScheduler = Executors.newSingleThreadScheduledExecutor();
-        refreshScheduler.scheduleAtFixedRate(
-            () -> handler.post(() -> fetchFeed(false)),
-            REFRESH_INTERVAL_MIN, REFRESH_INTERVAL_MIN, TimeUnit.MINUTES
-        );
+        if (refreshTask != null) return;
+        long sinceLast = System.currentTimeMillis() - lastRefreshMs;
+        scheduleRefresh(Math.max(0, refreshScheduler.nextDelayMs() - sinceLast));
+    }
+
+    private void scheduleRefresh(long delayMs) {
+        stopAutoRefresh();
+        refreshTask = AppExecutors.get().scheduler().schedule(
+            () -> handler.post(() -> fetchFeed(false)), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopAutoRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /** Text shown in the debug overlay and exported from it. */
+    private String debugReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("v").append(BuildConfig.VERSION_NAME)
+          .append(" (").append(BuildConfig.VERSION_CODE).append(")\n");
+
+        sb.append("\n── feed ──\n");
+        FeedIndex index = RssFetcher.getIndex();
+        TickerSnapshot ticker = feed.get();
+        sb.append("retained ").append(index != null ? index.size() : 0).append(" items / ")
+          .append(index != null ? index.getHours() : 0).append(" h, showing ")
+          .append(ticker.size()).append(" / ").append(hoursBack).append(" h, snapshot v")
+          .append(ticker.version).append('\n');
+        sb.append("full fetches ").append(RssFetcher.getFullFetchCount())
+          .append(", 304s ").append(RssFetcher.getNotModifiedCount()).append('\n');
+        sb.append(RssFetcher.describeSources());
+        sb.append("poll interval ").append(refreshScheduler.getIntervalMs() / 1000)
+          .append(" s, item gap ").append((long) refreshScheduler.getGapSeconds()).append(" s\n");
+
+        sb.append("\n── hosts ──\n");
+        for (HostGuard g : HostGuard.all()) sb.append(g).append('\n');
+
+        sb.append("\n── bodies ──\n");
+        sb.append("cache hit rate ").append(Math.round(bodyCache.getHitRate() * 100))
+          .append("% (mem ").append(bodyCache.getMemoryHits())
+          .append(", disk ").append(bodyCache.getDiskHits())
+          .append(", miss ").append(bodyCache.getMisses()).append(")\n");
+        sb.append("cache size mem ").append(bodyCache.getMemoryBytes() / 1024)
+          .append(" KB, disk ").append(bodyCache.getDiskBytes() / 1024).append(" KB\n");
+        sb.append("loads started ").append(articleLoader.getStartedCount())
+          .append(", coalesced ").append(articleLoader.getCoalescedCount())
+          .append(", aborted ").append(articleLoader.getAbortedCount()).append('\n');
+
+        sb.append("\n── search ──\n");
+        sb.append(searchIndex).append('\n');
+
+        sb.append("\n── frames ──\n");
+        sb.append(frameMonitor.report());
+
+        sb.append("\n── metrics ──\n");
+        sb.append(FetchMetrics.dump());
+        return sb.toString();
     }
 
     private static int indexOfHours(int hours) {
@@ -393,6 +648,10 @@ public class MainActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         cancelTick();
-        if (refreshScheduler != null) refreshScheduler.shutdownNow();
+        stopAutoRefresh();
+        cancelBodyLoad();
+        if (prefetcher != null) prefetcher.cancelAll();
+        // Recreation (e.g. theme toggle) keeps the shared pools; leaving the app stops them
+        if (isFinishing()) AppExecutors.shutdown();
     }
 }
@@ -0,0 +1,117 @@
+package com.ynixon.rotter;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+/**
+ * Allows prefetch only on unmetered networks, outside battery saver and above a battery
+ * floor (or while charging). The state is cached from battery, power-save and network
+ * callbacks between {@link #start} and {@link #stop}, so {@link #allowed} makes no binder
+ * calls and is cheap on the UI thread. Stopped, it allows nothing.
+ */
+class PrefetchGate implements BodyPrefetcher.Gate {
+
+    private final Context context;
+    private final int     minBatteryPct;
+
+    private volatile boolean started;
+    private volatile boolean unmetered;
+    private volatile boolean powerSave;
+    private volatile boolean batteryOk = true;
+
+    private final BroadcastReceiver batteryReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context c, Intent intent) { onBattery(intent); }
+    };
+
+    private final BroadcastReceiver powerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context c, Intent intent) { readPowerSave(); }
+    };
+
+    // Called on the connectivity thread, so re-reading the active network is off the UI thread
+    private final ConnectivityManager.NetworkCallback networkCallback =
+            new ConnectivityManager.NetworkCallback() {
+                @Override public void onAvailable(Network network) { readMetered(); }
+                @Override public void onLost(Network network)      { readMetered(); }
+                @Override public void onCapabilitiesChanged(Network network, NetworkCapabilities caps) {
+                    readMetered();
+                }
+            };
+
+    PrefetchGate(Context context, int minBatteryPct) {
+        this.context       = context.getApplicationContext();
+        this.minBatteryPct = minBatteryPct;
+    }
+
+    @Override
+    public boolean allowed() {
+        return started && unmetered && !powerSave && batteryOk;
+    }
+
+    /** Reads the current state once and follows changes until {@link #stop}. */
+    void start() {
+        if (started) return;
+        readMetered();
+        readPowerSave();
+        // Sticky: the current battery state comes back right away
+        onBattery(context.registerReceiver(batteryReceiver,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED)));
+        context.registerReceiver(powerSaveReceiver,
+                new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        ConnectivityManager cm = connectivity();
+        if (cm != null) {
+            cm.registerNetworkCallback(new NetworkRequest.Builder()
+                    .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET).build(),
+                    networkCallback);
+        }
+        started = true;
+    }
+
+    void stop() {
+        if (!started) return;
+        started = false;
+        context.unregisterReceiver(batteryReceiver);
+        context.unregisterReceiver(powerSaveReceiver);
+        ConnectivityManager cm = connectivity();
+        if (cm != null) cm.unregisterNetworkCallback(networkCallback);
+    }
+
+    private void readMetered() {
+        ConnectivityManager cm = connectivity();
+        unmetered = cm != null && !cm.isActiveNetworkMetered();
+    }
+
+    private void readPowerSave() {
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        powerSave = pm != null && pm.isPowerSaveMode();
+    }
+
+    private void onBattery(Intent battery) {
+        if (battery == null) {
+            batteryOk = true;
+            return;
+        }
+        int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+        if (status == BatteryManager.BATTERY_STATUS_CHARGING
+                || status == BatteryManager.BATTERY_STATUS_FULL) {
+            batteryOk = true;
+            return;
+        }
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        batteryOk = level < 0 || scale <= 0 || level * 100 / scale >= minBatteryPct;
+    }
+
+    private ConnectivityManager connectivity() {
+        return (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ynixon.rotter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.inputmethod.InputMethodManager;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.ListView;
+import android.widget.TextView;
+import androidx.activity.OnBackPressedCallback;
+
+import java.util.List;
+
+/**
+ * Search over the stories of the last day, shown over the ticker. Every keystroke queries
+ * {@link SearchIndex} on the CPU pool; results of an older keystroke that finish late are
+ * dropped, so the list always matches the text in the box.
+ */
+class SearchPanel {
+
+    /** Receives the story the user picked; called on the UI thread. */
+    interface Listener {
+        void onPicked(NewsEntry entry);
+    }
+
+    private static final int MAX_RESULTS = 50;
+
+    private final View        panel;
+    private final EditText    query;
+    private final TextView    status;
+    private final Handler     handler;
+    private final SearchIndex index;
+    private final ArrayAdapter<NewsEntry> adapter;
+    private int generation; // bumped per query; UI thread only
+
+    // Enabled only while the panel is shown, so otherwise back reaches the activity
+    private final OnBackPressedCallback closeOnBack = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() { hide(); }
+    };
+
+    SearchPanel(View panel, EditText query, TextView status, ListView results,
+                Handler handler, SearchIndex index, Listener listener) {
+        this.panel   = panel;
+        this.query   = query;
+        this.status  = status;
+        this.handler = handler;
+        this.index   = index;
+        this.adapter = new ArrayAdapter<NewsEntry>(panel.getContext(),
+                android.R.layout.simple_list_item_2, android.R.id.text1) {
+            @Override
+            public View getView(int position, View convertView, ViewGroup parent) {
+                View row = super.getView(position, convertView, parent);
+                NewsEntry e = getItem(position);
+                ((TextView) row.findViewById(android.R.id.text1)).setText(e.getTitle());
+                ((TextView) row.findViewById(android.R.id.text2)).setText(e.getDate());
+                return row;
+            }
+        };
+        results.setAdapter(adapter);
+        results.setOnItemClickListener((parent, view, position, id) -> {
+            NewsEntry picked = adapter.getItem(position);
+            hide();
+            listener.onPicked(picked);
+        });
+        query.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            @Override public void afterTextChanged(Editable s) { search(s.toString()); }
+        });
+    }
+
+    boolean isShown() { return panel.getVisibility() == View.VISIBLE; }
+
+    /** Register with the activity's back dispatcher so back closes the panel. */
+    OnBackPressedCallback getBackCallback() { return closeOnBack; }
+
+    void toggle() {
+        if (isShown()) hide();
+        else           show();
+    }
+
+    void show() {
+        panel.setVisibility(View.VISIBLE);
+        closeOnBack.setEnabled(true);
+        query.requestFocus();
+        keyboard().showSoftInput(query, InputMethodManager.SHOW_IMPLICIT);
+        // Stories indexed since the panel was last open
+        search(query.getText().toString());
+    }
+
+    void hide() {
+        keyboard().hideSoftInputFromWindow(query.getWindowToken(), 0);
+        panel.setVisibility(View.GONE);
+        closeOnBack.setEnabled(false);
+    }
+
+    private void search(String text) {
+        int mine = ++generation;
+        if (text.trim().isEmpty()) {
+            showResults(null);
+            return;
+        }
+        boolean queued = AppExecutors.get().tryCpu(() -> {
+            List<NewsEntry> found = index.search(text, MAX_RESULTS);
+            handler.post(() -> {
+                if (mine == generation) showResults(found);
+            });
+        });
+        if (!queued) showResults(index.search(text, MAX_RESULTS));
+    }
+
+    /** @param found null for an empty query */
+    private void showResults(List<NewsEntry> found) {
+        adapter.setNotifyOnChange(false);
+        adapter.clear();
+        if (found != null) adapter.addAll(found);
+        adapter.notifyDataSetChanged();
+        if (found == null) {
+            status.setVisibility(View.GONE);
+        } else {
+            status.setText(found.isEmpty()
+                    ? status.getContext().getString(R.string.search_no_results)
+                    : found.size() + " " + status.getContext().getString(R.string.search_results));
+            status.setVisibility(View.VISIBLE);
+        }
+    }
+
+    private InputMethodManager keyboard() {
+        return (InputMethodManager) panel.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+    }
+}
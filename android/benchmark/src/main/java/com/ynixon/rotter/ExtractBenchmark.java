@@ -0,0 +1,61 @@
+package com.ynixon.rotter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Article body extraction, one recorded page per path through {@link BodyExtractor}: each
+ * container marker, the Hebrew-density fallback and the longest-paragraph fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractBenchmark {
+
+    @Param({
+        "marker-id-scoopBody",
+        "marker-id-scoop_body",
+        "marker-class-scoopBody",
+        "marker-class-scoop_body",
+        "marker-class-newsbody",
+        "marker-class-post_body",
+        "marker-class-postbody",
+        "marker-class-prow1_valmiddle",
+        "marker-class-prow1",
+        "fallback-density",
+        "fallback-paragraph",
+    })
+    public String page;
+
+    private String html;
+
+    @Setup
+    public void load() {
+        html = Fixtures.article(page);
+    }
+
+    @Benchmark
+    public String extractBody() {
+        return ArticleFetcher.extractBody(html);
+    }
+
+    /** Whole-page tag stripping, the cost every extraction path is bounded by. */
+    @Benchmark
+    public String stripTags() {
+        return HtmlText.stripTags(html, 0, html.length());
+    }
+}
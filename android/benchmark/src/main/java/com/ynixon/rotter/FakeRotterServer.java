@@ -0,0 +1,199 @@
+package com.ynixon.rotter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for rotter.net serving the recorded fixtures: the feed at
+ * {@code /rss/rotternews.xml} and article pages at {@code /forum/scoops1/<n>.shtml}, all in
+ * windows-1255. Every response can be delayed, bandwidth-limited or replaced by a 503 to
+ * imitate a degraded network or an overloaded site.
+ */
+final class FakeRotterServer implements AutoCloseable {
+
+    static final String FEED_PATH    = "/rss/rotternews.xml";
+    static final String ARTICLE_PATH = "/forum/scoops1/";
+
+    /** Network and site conditions; all zero means a fast, healthy server. */
+    static final class Conditions {
+        int     latencyMs;        // added before the response headers
+        int     jitterMs;         // uniform extra latency in [0, jitterMs]
+        int     bytesPerSecond;   // body throughput, 0 = unlimited
+        double  errorRate;        // fraction of requests answered 503
+        boolean gzip;             // compress when the client accepts it
+        boolean validators;       // send an ETag and answer If-None-Match with 304
+
+        @Override
+        public String toString() {
+            return "latency=" + latencyMs + "ms±" + jitterMs
+                    + " bandwidth=" + (bytesPerSecond == 0 ? "unlimited" : bytesPerSecond / 1024 + "KB/s")
+                    + " errors=" + errorRate + " gzip=" + gzip + " validators=" + validators;
+        }
+    }
+
+    private static final int CHUNK = 4096;
+
+    private final Conditions     conditions;
+    private final byte[]         feed;
+    private final String         feedEtag;
+    private final byte[][]       articles;
+    private final HttpServer     server;
+    private final ExecutorService pool;
+
+    FakeRotterServer(String feedSize, String[] articlePages, Conditions conditions) throws IOException {
+        this.conditions = conditions;
+        this.feed       = rebaseDates(Fixtures.feed(feedSize), System.currentTimeMillis());
+        this.feedEtag   = "\"" + Integer.toHexString(Arrays.hashCode(feed)) + "\"";
+        this.articles   = new byte[articlePages.length][];
+        for (int i = 0; i < articlePages.length; i++) {
+            articles[i] = Fixtures.bytes("fixtures/articles/" + articlePages[i] + ".html");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        pool   = Executors.newCachedThreadPool();
+        server.setExecutor(pool);
+        server.createContext(FEED_PATH, this::serveFeed);
+        server.createContext(ARTICLE_PATH, this::serveArticle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    String feedUrl() { return baseUrl() + FEED_PATH; }
+
+    String articleUrl(int n) { return baseUrl() + ARTICLE_PATH + n + ".shtml"; }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    // ── Handlers ─────────────────────────────────────────────────────────────
+
+    private void serveFeed(HttpExchange ex) throws IOException {
+        if (!admit(ex)) return;
+        if (conditions.validators) {
+            ex.getResponseHeaders().set("ETag", feedEtag);
+            if (feedEtag.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+                ex.sendResponseHeaders(304, -1);
+                ex.close();
+                return;
+            }
+        }
+        send(ex, "text/xml; charset=windows-1255", feed);
+    }
+
+    private void serveArticle(HttpExchange ex) throws IOException {
+        if (!admit(ex)) return;
+        String path = ex.getRequestURI().getPath();
+        int n;
+        try {
+            n = Integer.parseInt(path.substring(ARTICLE_PATH.length(), path.indexOf('.', ARTICLE_PATH.length())));
+        } catch (RuntimeException e) {
+            ex.sendResponseHeaders(404, -1);
+            ex.close();
+            return;
+        }
+        send(ex, "text/html; charset=windows-1255", articles[Math.floorMod(n, articles.length)]);
+    }
+
+    /** Applies latency and injected errors; false when the request was answered with a 503. */
+    private boolean admit(HttpExchange ex) throws IOException {
+        ex.getRequestBody().close();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int delay = conditions.latencyMs + (conditions.jitterMs > 0 ? rnd.nextInt(conditions.jitterMs + 1) : 0);
+        sleep(delay);
+        if (conditions.errorRate > 0 && rnd.nextDouble() < conditions.errorRate) {
+            ex.sendResponseHeaders(503, -1);
+            ex.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void send(HttpExchange ex, String contentType, byte[] body) throws IOException {
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (conditions.gzip && accept != null && accept.contains("gzip")) {
+            body = gzip(body);
+            ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        ex.getResponseHeaders().set("Content-Type", contentType);
+        ex.sendResponseHeaders(200, body.length);
+        // The client may hang up once it has what it needs (early-stop parsing)
+        try (OutputStream out = ex.getResponseBody()) {
+            for (int off = 0; off < body.length; off += CHUNK) {
+                int len = Math.min(CHUNK, body.length - off);
+                out.write(body, off, len);
+                out.flush();
+                if (conditions.bytesPerSecond > 0) sleep(len * 1000L / conditions.bytesPerSecond);
+            }
+        } catch (IOException clientGone) {
+            // nothing to do
+        }
+    }
+
+    // ── Fixture preparation ──────────────────────────────────────────────────
+
+    private static final Pattern PUB_DATE = Pattern.compile("<pubDate>([^<]+)</pubDate>");
+
+    /**
+     * Shifts every pubDate so the newest item is {@code nowMs}; the recorded feed would
+     * otherwise fall entirely outside the fetch window. The fixtures' dates are ASCII, so the
+     * windows-1255 bytes round-trip through Latin-1 unchanged.
+     */
+    static byte[] rebaseDates(byte[] xml, long nowMs) {
+        String s = new String(xml, StandardCharsets.ISO_8859_1);
+        Matcher m = PUB_DATE.matcher(s);
+        long newest = Long.MIN_VALUE;
+        while (m.find()) newest = Math.max(newest, PubDateParser.parseEpochSeconds(m.group(1)));
+        if (newest == PubDateParser.INVALID) return xml;
+        long shift = nowMs / 1000L - newest;
+
+        SimpleDateFormat fmt = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US);
+        StringBuffer out = new StringBuffer(s.length());
+        m.reset();
+        while (m.find()) {
+            long t = PubDateParser.parseEpochSeconds(m.group(1));
+            String date = t == PubDateParser.INVALID ? m.group(1) : fmt.format(new Date((t + shift) * 1000L));
+            m.appendReplacement(out, Matcher.quoteReplacement("<pubDate>" + date + "</pubDate>"));
+        }
+        m.appendTail(out);
+        return out.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(body);
+        }
+        return bos.toByteArray();
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ynixon.rotter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RssFetcher#mergeNewestFirst} against concatenating and re-sorting, over
+ * {@code feeds} copies of the large recorded feed with their links made distinct per copy
+ * except for every fourth item, which all copies share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedMergeBenchmark {
+
+    @Param({"2", "6"})
+    public int feeds;
+
+    private List<List<NewsEntry>> lists;
+
+    @Setup
+    public void load() throws Exception {
+        List<NewsEntry> base = RssFetcher.parse(new ByteArrayInputStream(Fixtures.feed("large")),
+                RssFetcher.WINDOW_HOURS, null, Fixtures.FEED_NOW).entries;
+        lists = new ArrayList<>();
+        for (int f = 0; f < feeds; f++) {
+            List<NewsEntry> copy = new ArrayList<>(base.size());
+            for (int i = 0; i < base.size(); i++) {
+                NewsEntry e = base.get(i);
+                String link = i % 4 == 0 ? e.getLink() : e.getLink() + "#" + f;
+                // Shift each copy a little so the lists interleave
+                copy.add(new NewsEntry(e.getTitle(), e.getDate(), link, e.getDescription(),
+                        e.getTimestamp() - f * 7));
+            }
+            lists.add(copy);
+        }
+    }
+
+    @Benchmark
+    public Object kWayMerge() {
+        return RssFetcher.mergeNewestFirst(lists);
+    }
+
+    @Benchmark
+    public Object concatAndSort() {
+        List<NewsEntry> all = new ArrayList<>();
+        for (List<NewsEntry> l : lists) all.addAll(l);
+        all.sort((a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()));
+        List<NewsEntry> out = new ArrayList<>(all.size());
+        Set<String> keys = new HashSet<>(all.size() * 2);
+        for (NewsEntry e : all) {
+            if (keys.add(e.getKey())) out.add(e);
+        }
+        return out;
+    }
+}
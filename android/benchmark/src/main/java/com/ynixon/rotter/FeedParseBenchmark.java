@@ -0,0 +1,47 @@
+package com.ynixon.rotter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RssFetcher#parse} over the recorded feeds, for the retained 16-hour window and for
+ * a 1-hour window (where the stale-run cut-off ends the parse early).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedParseBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    @Param({"16", "1"})
+    public int hoursBack;
+
+    private byte[] feed;
+
+    @Setup
+    public void load() {
+        feed = Fixtures.feed(size);
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return RssFetcher.parse(new ByteArrayInputStream(feed), hoursBack, null, Fixtures.FEED_NOW);
+    }
+}
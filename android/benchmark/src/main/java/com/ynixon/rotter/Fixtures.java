@@ -0,0 +1,41 @@
+package com.ynixon.rotter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Recorded inputs under {@code resources/fixtures}: feed snapshots of three sizes and one
+ * article page per body-extraction path, all in windows-1255 as rotter.net serves them.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static final Charset PAGE_CHARSET = Charset.forName("windows-1255");
+
+    /** pubDate of the newest item in every feed fixture; the benchmarks' "now". */
+    static final long FEED_NOW = PubDateParser.parseEpochSeconds("Sun, 12 Jan 2025 21:48:03 +0200");
+
+    static byte[] feed(String size) {
+        return bytes("fixtures/rotternews-" + size + ".xml");
+    }
+
+    static String article(String name) {
+        return new String(bytes("fixtures/articles/" + name + ".html"), PAGE_CHARSET);
+    }
+
+    static byte[] bytes(String path) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) throw new IllegalArgumentException("missing fixture " + path);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ynixon.rotter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load run of the real fetch layer against {@link FakeRotterServer}. Each round
+ * is what the app does when the user taps refresh and then opens headlines: one feed fetch
+ * through {@link RssFetcher} plus {@code expands} concurrent {@link ArticleFetcher} body
+ * fetches. Reports p50/p99 latency per operation, throughput and peak heap.
+ *
+ * <p>Arguments are {@code key=value} pairs, e.g.
+ * {@code rounds=30 expands=20 latency=150 jitter=300 bandwidth=64 errors=0.05 gzip=true}.
+ * {@code bandwidth} is in KB/s; {@code feed} is small, medium or large.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {}
+
+    private static final String[] ARTICLE_PAGES = {
+        "marker-id-scoopBody", "marker-id-scoop_body", "marker-class-scoopBody",
+        "marker-class-scoop_body", "marker-class-newsbody", "marker-class-post_body",
+        "marker-class-postbody", "marker-class-prow1_valmiddle", "marker-class-prow1",
+        "fallback-density", "fallback-paragraph",
+    };
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = parseArgs(args);
+        int    rounds  = Integer.parseInt(opt.getOrDefault("rounds", "20"));
+        int    expands = Integer.parseInt(opt.getOrDefault("expands", "20"));
+        String feed    = opt.getOrDefault("feed", "medium");
+
+        FakeRotterServer.Conditions net = new FakeRotterServer.Conditions();
+        net.latencyMs      = Integer.parseInt(opt.getOrDefault("latency", "0"));
+        net.jitterMs       = Integer.parseInt(opt.getOrDefault("jitter", "0"));
+        net.bytesPerSecond = Integer.parseInt(opt.getOrDefault("bandwidth", "0")) * 1024;
+        net.errorRate      = Double.parseDouble(opt.getOrDefault("errors", "0"));
+        net.gzip           = Boolean.parseBoolean(opt.getOrDefault("gzip", "false"));
+        net.validators     = Boolean.parseBoolean(opt.getOrDefault("validators", "false"));
+
+        System.out.println("feed=" + feed + " rounds=" + rounds + " expands=" + expands + " " + net);
+
+        try (FakeRotterServer server = new FakeRotterServer(feed, ARTICLE_PAGES, net)) {
+            RssFetcher.setFeedUrl(server.feedUrl());
+            ExecutorService pool = Executors.newFixedThreadPool(expands + 1);
+            try {
+                // One unmeasured round so class loading and JIT don't land in the percentiles
+                runRound(server, pool, expands, 0, new Samples(), new Samples());
+                FetchMetrics.reset();
+                resetHeapPeaks();
+
+                Samples feedLat    = new Samples();
+                Samples articleLat = new Samples();
+                long start = System.nanoTime();
+                for (int r = 1; r <= rounds; r++) {
+                    runRound(server, pool, expands, r * expands, feedLat, articleLat);
+                }
+                double wallSec = (System.nanoTime() - start) / 1e9;
+
+                System.out.println();
+                System.out.println(feedLat.summary("feed"));
+                System.out.println(articleLat.summary("article"));
+                int ops = feedLat.count() + articleLat.count();
+                System.out.printf(Locale.US, "throughput  %.1f fetches/s (%d in %.1f s)%n", ops / wallSec, ops, wallSec);
+                System.out.printf(Locale.US, "peak heap   %.1f MB%n", peakHeapBytes() / (1024.0 * 1024.0));
+                for (HostGuard g : HostGuard.all()) System.out.println("guard       " + g);
+                System.out.println();
+                System.out.println(FetchMetrics.dump());
+            } finally {
+                pool.shutdownNow();
+                RssFetcher.setFeedUrl(null);
+            }
+        }
+    }
+
+    private static void runRound(FakeRotterServer server, ExecutorService pool, int expands, int firstArticle,
+                                 Samples feedLat, Samples articleLat) throws Exception {
+        List<Future<?>> pending = new ArrayList<>(expands + 1);
+        pending.add(pool.submit(() -> {
+            long t = System.nanoTime();
+            List<NewsEntry> entries = RssFetcher.fetch(RssFetcher.WINDOW_HOURS);
+            feedLat.add(System.nanoTime() - t, entries != null);
+        }));
+        for (int i = 0; i < expands; i++) {
+            String url = server.articleUrl(firstArticle + i);
+            pending.add(pool.submit(() -> {
+                long t = System.nanoTime();
+                String body = ArticleFetcher.fetchBody(url);
+                articleLat.add(System.nanoTime() - t, body != null);
+            }));
+        }
+        for (Future<?> f : pending) f.get();
+    }
+
+    // ── Measurements ─────────────────────────────────────────────────────────
+
+    /** Latencies of one operation type; failures are timed too (a fast failure is still an answer). */
+    private static final class Samples {
+        private long[] nanos = new long[256];
+        private int    size;
+        private int    failures;
+
+        synchronized void add(long elapsedNanos, boolean ok) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = elapsedNanos;
+            if (!ok) failures++;
+        }
+
+        synchronized int count() { return size; }
+
+        synchronized String summary(String name) {
+            if (size == 0) return String.format(Locale.US, "%-11s no samples", name);
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return String.format(Locale.US, "%-11s n=%d failed=%d  p50=%.1f ms  p99=%.1f ms  max=%.1f ms",
+                    name, size, failures,
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6, sorted[size - 1] / 1e6);
+        }
+
+        /** Nearest-rank percentile of an ascending array. */
+        private static long percentile(long[] sorted, int p) {
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    private static void resetHeapPeaks() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /** Sum of the heap pools' peaks — an upper bound, as the pools need not peak together. */
+    private static long peakHeapBytes() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) total += pool.getPeakUsage().getUsed();
+        }
+        return total;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opt = new LinkedHashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("expected key=value, got " + a);
+            opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return opt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ynixon.rotter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** pubDate parsing and HH:mm formatting over every date in the medium feed fixture. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PubDateBenchmark {
+
+    private String[] dates;
+    private long[]   epochs;
+    private final TimeZone zone = TimeZone.getTimeZone("Asia/Jerusalem");
+
+    @Setup
+    public void load() {
+        // pubDates are ASCII, so the windows-1255 bytes can be scanned as Latin-1
+        String xml = new String(Fixtures.feed("medium"), StandardCharsets.ISO_8859_1);
+        List<String> found = new ArrayList<>();
+        Matcher m = Pattern.compile("<pubDate>([^<]+)</pubDate>").matcher(xml);
+        while (m.find()) found.add(m.group(1));
+        dates  = found.toArray(new String[0]);
+        epochs = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) epochs[i] = PubDateParser.parseEpochSeconds(dates[i]);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String d : dates) bh.consume(PubDateParser.parseEpochSeconds(d));
+    }
+
+    @Benchmark
+    public void formatTime(Blackhole bh) {
+        for (long e : epochs) bh.consume(PubDateParser.formatTime(e, zone));
+    }
+}
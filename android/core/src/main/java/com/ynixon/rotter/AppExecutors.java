@@ -0,0 +1,114 @@
+package com.ynixon.rotter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App-wide background threads, so fetches reuse a fixed set of workers instead of
+ * creating a thread per call.
+ *
+ * <ul>
+ *   <li>{@link #io()} — network and disk; small pool with a bounded queue.</li>
+ *   <li>{@link #cpu()} — parsing and body extraction; one thread per core.</li>
+ *   <li>{@link #scheduler()} — periodic jobs such as the feed refresh.</li>
+ * </ul>
+ * Idle pool threads time out. {@link #shutdown()} stops everything, letting queued disk
+ * writes finish first; the next {@link #get()} builds a fresh set (e.g. when the activity
+ * is recreated).
+ */
+public final class AppExecutors {
+
+    private static final int IO_THREADS     = 4;
+    private static final int IO_QUEUE_LIMIT = 32;
+    private static final int CPU_THREADS    =
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 3));
+    private static final int CPU_QUEUE_LIMIT = 32;
+    // How long I/O work queued before shutdown (seen-set and snapshot saves) may still run
+    static final long IO_DRAIN_MS = 5_000;
+
+    private static AppExecutors instance;
+
+    private final ThreadPoolExecutor       io;
+    private final ThreadPoolExecutor       cpu;
+    private final ScheduledExecutorService scheduler;
+
+    private AppExecutors() {
+        io  = newPool("rotter-io",  IO_THREADS,  IO_QUEUE_LIMIT);
+        cpu = newPool("rotter-cpu", CPU_THREADS, CPU_QUEUE_LIMIT);
+        scheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("rotter-sched"));
+    }
+
+    public static synchronized AppExecutors get() {
+        if (instance == null) instance = new AppExecutors();
+        return instance;
+    }
+
+    /**
+     * Stops all pools without blocking the caller. CPU and scheduled work is dropped and
+     * interrupted. The I/O pool takes no new work but runs what is already queued, so the
+     * state saved on the way out isn't lost; whatever is still running after
+     * {@link #IO_DRAIN_MS} is interrupted.
+     */
+    public static void shutdown() {
+        AppExecutors old;
+        synchronized (AppExecutors.class) {
+            old = instance;
+            instance = null;
+        }
+        if (old == null) return;
+        old.cpu.shutdownNow();
+        old.scheduler.shutdownNow();
+        old.io.shutdown();
+        ThreadPoolExecutor io = old.io;
+        Thread drain = new Thread(() -> {
+            try {
+                if (!io.awaitTermination(IO_DRAIN_MS, TimeUnit.MILLISECONDS)) io.shutdownNow();
+            } catch (InterruptedException e) {
+                io.shutdownNow();
+            }
+        }, "rotter-io-drain");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    public ThreadPoolExecutor       io()        { return io; }
+    public ThreadPoolExecutor       cpu()       { return cpu; }
+    public ScheduledExecutorService scheduler() { return scheduler; }
+
+    /** Runs {@code task} on the I/O pool; false if the queue is full or the pool is shut down. */
+    public boolean tryIo(Runnable task)  { return tryExecute(io, task); }
+
+    /** Runs {@code task} on the CPU pool; false if the queue is full or the pool is shut down. */
+    public boolean tryCpu(Runnable task) { return tryExecute(cpu, task); }
+
+    private static boolean tryExecute(ThreadPoolExecutor pool, Runnable task) {
+        try {
+            pool.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static ThreadPoolExecutor newPool(String name, int threads, int queueLimit) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueLimit), namedThreads(name));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single entry point for article body loads (expand and prefetch).
+ *
+ * Concurrent requests for the same URL join one in-flight load. Each caller gets a
+ * {@link Ticket}; cancelling it stops that caller's delivery, and once the last ticket of a
+ * load is cancelled the download itself is aborted (socket disconnected) so fast swiping
+ * doesn't leave dead reads running to their timeout. Each load checks {@link BodyCache}
+ * first, downloads on the I/O executor, extracts on the CPU executor and caches the result.
+ *
+ * Callbacks run on a worker thread; post to the UI thread as needed.
+ */
+public class ArticleFetchCoordinator {
+
+    public interface Callback {
+        /** @param body extracted body, "" if the page has none, or null if the load failed */
+        void onResult(String body);
+    }
+
+    /** Told about every body a load produced, whoever requested it (e.g. the search index). */
+    public interface BodyListener {
+        void onBody(String url, String body);
+    }
+
+    /** One caller's interest in a load. */
+    public final class Ticket {
+        private final Flight   flight;
+        private final Callback callback;
+        private volatile boolean cancelled;
+
+        private Ticket(Flight flight, Callback callback) {
+            this.flight   = flight;
+            this.callback = callback;
+        }
+
+        public String  getUrl()      { return flight.url; }
+        public boolean isCancelled() { return cancelled; }
+
+        public void cancel() { ArticleFetchCoordinator.this.cancel(this); }
+    }
+
+    private static final class Flight {
+        final String url;
+        final ArticleFetcher.Call call = new ArticleFetcher.Call();
+        final List<Ticket> tickets = new ArrayList<>();
+        boolean done;
+
+        Flight(String url) { this.url = url; }
+    }
+
+    private final BodyCache cache;
+    private final Executor  io;
+    private final Executor  cpu;
+    private final Map<String, Flight> flights = new HashMap<>();
+    private volatile BodyListener bodyListener;
+
+    private final AtomicLong started   = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong aborted   = new AtomicLong();
+
+    public ArticleFetchCoordinator(BodyCache cache, Executor io, Executor cpu) {
+        this.cache = cache;
+        this.io    = io;
+        this.cpu   = cpu;
+    }
+
+    /** Requests the body of {@code url}; {@code callback} may be null for warm-up loads. */
+    public Ticket request(String url, Callback callback) {
+        Flight  flight;
+        Ticket  ticket;
+        boolean start = false;
+        synchronized (flights) {
+            flight = flights.get(url);
+            if (flight == null) {
+                flight = new Flight(url);
+                flights.put(url, flight);
+                start = true;
+            }
+            ticket = new Ticket(flight, callback);
+            flight.tickets.add(ticket);
+        }
+        if (start) {
+            started.incrementAndGet();
+            Flight f = flight;
+            try {
+                io.execute(() -> load(f));
+            } catch (RejectedExecutionException full) {
+                complete(f, null);
+            }
+        } else {
+            coalesced.incrementAndGet();
+        }
+        return ticket;
+    }
+
+    /** Sets the listener for produced bodies; called on a worker thread. */
+    public void setBodyListener(BodyListener listener) { this.bodyListener = listener; }
+
+    /** Number of loads actually started. */
+    public long getStartedCount()   { return started.get(); }
+
+    /** Number of requests that joined a load already in flight. */
+    public long getCoalescedCount() { return coalesced.get(); }
+
+    /** Number of loads aborted because every caller cancelled. */
+    public long getAbortedCount()   { return aborted.get(); }
+
+    private void load(Flight flight) {
+        String body = cache.get(flight.url);
+        if (body != null || flight.call.isCancelled()) {
+            complete(flight, body);
+            return;
+        }
+        if (ArticleFetcher.usesGateway()) {
+            // The gateway has already extracted the body; nothing left for the CPU pool
+            String fetched = ArticleFetcher.fetchFromGateway(flight.url, flight.call);
+            if (fetched != null) cache.put(flight.url, fetched);
+            complete(flight, fetched);
+            return;
+        }
+        String html = ArticleFetcher.fetchPage(flight.url, flight.call);
+        if (html == null) {
+            complete(flight, null);
+            return;
+        }
+        Runnable extract = () -> {
+            // Always complete: a stuck flight would swallow every later request for this URL
+            String extracted = null;
+            try {
+                extracted = ArticleFetcher.extractBody(html);
+                cache.put(flight.url, extracted);
+                if (extracted == null) extracted = ""; // page loaded, nothing to extract
+            } catch (RuntimeException e) {
+                extracted = null;
+            } finally {
+                complete(flight, extracted);
+            }
+        };
+        try {
+            cpu.execute(extract);
+        } catch (RejectedExecutionException full) {
+            extract.run();
+        }
+    }
+
+    private void complete(Flight flight, String body) {
+        List<Ticket> waiting;
+        synchronized (flights) {
+            flight.done = true;
+            if (flights.get(flight.url) == flight) flights.remove(flight.url);
+            waiting = new ArrayList<>(flight.tickets);
+            flight.tickets.clear();
+        }
+        for (Ticket t : waiting) {
+            if (!t.cancelled && t.callback != null) t.callback.onResult(body);
+        }
+        BodyListener listener = bodyListener;
+        if (listener != null && body != null && !body.isEmpty()) listener.onBody(flight.url, body);
+    }
+
+    private void cancel(Ticket ticket) {
+        Flight flight = ticket.flight;
+        boolean abort;
+        synchronized (flights) {
+            if (ticket.cancelled) return;
+            ticket.cancelled = true;
+            flight.tickets.remove(ticket);
+            abort = flight.tickets.isEmpty() && !flight.done;
+            if (abort && flights.get(flight.url) == flight) flights.remove(flight.url);
+        }
+        if (abort) {
+            aborted.incrementAndGet();
+            flight.call.cancel();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ynixon.rotter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+
+/**
+ * Fetches an article page from rotter.net and extracts the main post body text.
+ * The RSS <description> is always empty, so we scrape on demand.
+ */
+public class ArticleFetcher {
+
+    /**
+     * Handle for one {@link #fetchPage(String, Call)}. {@link #cancel()} may be called from
+     * any thread; it disconnects the socket so a blocked read fails immediately.
+     */
+    public static final class Call {
+        private volatile HttpURLConnection conn;
+        private volatile boolean cancelled;
+
+        public void cancel() {
+            cancelled = true;
+            HttpURLConnection c = conn;
+            if (c != null) c.disconnect();
+        }
+
+        public boolean isCancelled() { return cancelled; }
+
+        void attach(HttpURLConnection c) {
+            conn = c;
+            if (cancelled) c.disconnect(); // lost the race with cancel()
+        }
+    }
+
+    /** Returns clean plain text of the article body, or null on failure. */
+    public static String fetchBody(String articleUrl) {
+        if (usesGateway()) return fetchFromGateway(articleUrl, null);
+        String html = fetchPage(articleUrl);
+        return html != null ? extractBody(html) : null;
+    }
+
+    private static final Charset PAGE_CHARSET   = Charset.forName("windows-1255");
+    private static final Charset GATEWAY_CHARSET = Charset.forName("UTF-8");
+    private static final long    MAX_PAGE_BYTES = 2L * 1024 * 1024;
+    private static final long    MAX_BODY_BYTES = 512L * 1024;
+
+    // Someone is waiting on the expand: give up sooner than a background feed poll
+    static final HostGuard.Timeouts PAGE_TIMEOUTS = new HostGuard.Timeouts(5_000, 8_000, 12_000);
+    // A gateway answers from memory, so a slow connect means it is down; reads may still
+    // wait on its own upstream load of an uncached article
+    static final HostGuard.Timeouts GATEWAY_TIMEOUTS = new HostGuard.Timeouts(3_000, 10_000, 15_000);
+
+    // Base URL of a feed gateway serving extracted bodies, or null to scrape rotter.net
+    private static volatile String gateway;
+
+    /**
+     * Loads bodies through a feed gateway at {@code baseUrl} (its {@code /article} endpoint
+     * returns the extracted text) instead of scraping pages here; null goes back to direct.
+     * Every request to the gateway's host, its feed included, then uses
+     * {@link #GATEWAY_TIMEOUTS}.
+     */
+    public static void setGateway(String baseUrl) {
+        String previous = gateway;
+        gateway = baseUrl;
+        if (previous != null) setHostTimeouts(previous, null);
+        if (baseUrl != null)  setHostTimeouts(baseUrl, GATEWAY_TIMEOUTS);
+    }
+
+    private static void setHostTimeouts(String baseUrl, HostGuard.Timeouts timeouts) {
+        try {
+            HostGuard.forHost(new URL(baseUrl).getHost()).setTimeouts(timeouts);
+        } catch (MalformedURLException ignored) {
+            // Every request to it fails, and is counted, anyway
+        }
+    }
+
+    public static boolean usesGateway() { return gateway != null; }
+
+    /**
+     * Fetches the already-extracted body of {@code articleUrl} from the gateway; "" when the
+     * page has no body, null on failure. Abortable through {@code call} (may be null).
+     */
+    public static String fetchFromGateway(String articleUrl, Call call) {
+        String base = gateway;
+        if (base == null || articleUrl == null || articleUrl.isEmpty()) return null;
+        if (call != null && call.isCancelled()) return null;
+        try {
+            URL url = new URL(base + "/article?url=" + URLEncoder.encode(articleUrl, "UTF-8"));
+            HostGuard.Abort abort = call == null ? null : call::isCancelled;
+            return HostGuard.forHost(url.getHost()).call(GATEWAY_TIMEOUTS, abort,
+                    (connectMs, readMs) -> fetchGatewayOnce(url, call, connectMs, readMs));
+        } catch (Exception e) {
+            if (call != null && call.isCancelled()) FetchMetrics.count("article.cancelled");
+            else                                    FetchMetrics.error("article", e);
+            return null;
+        }
+    }
+
+    private static String fetchGatewayOnce(URL url, Call call, int connectMs, int readMs)
+            throws IOException {
+        HttpURLConnection conn = HttpTransport.open(url, connectMs, readMs);
+        if (call != null) call.attach(conn);
+        try (HttpTransport.Response res = HttpTransport.execute(conn, MAX_BODY_BYTES)) {
+            if (res.code == 204) return "";
+            if (res.code != 200) throw new HostGuard.StatusException(res.code);
+            StringBuilder sb = new StringBuilder(8 * 1024);
+            Reader reader = new InputStreamReader(res.body(), GATEWAY_CHARSET);
+            char[] buf = new char[4 * 1024];
+            int n;
+            while ((n = reader.read(buf)) > 0) sb.append(buf, 0, n);
+            if (call != null && call.isCancelled()) return null;
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Downloads the article page (windows-1255), or null on failure. The page is scanned
+     * while it streams in; once the body container has closed the connection is dropped
+     * and only the part read so far is returned — the forum/navigation tail is never
+     * downloaded.
+     */
+    public static String fetchPage(String articleUrl) {
+        return fetchPage(articleUrl, null);
+    }
+
+    /**
+     * As {@link #fetchPage(String)}, abortable through {@code call} (may be null). Runs under
+     * the host's {@link HostGuard}, so an unreachable site fails fast instead of timing out.
+     */
+    public static String fetchPage(String articleUrl, Call call) {
+        if (articleUrl == null || articleUrl.isEmpty()) return null;
+        if (call != null && call.isCancelled()) return null;
+        try {
+            URL url = new URL(articleUrl);
+            HostGuard.Abort abort = call == null ? null : call::isCancelled;
+            return HostGuard.forHost(url.getHost()).call(PAGE_TIMEOUTS, abort,
+                    (connectMs, readMs) -> fetchOnce(url, call, connectMs, readMs));
+        } catch (Exception e) {
+            if (call != null && call.isCancelled()) FetchMetrics.count("article.cancelled");
+            else                                    FetchMetrics.error("article", e);
+            return null;
+        }
+    }
+
+    private static String fetchOnce(URL url, Call call, int connectMs, int readMs)
+            throws IOException {
+        HttpURLConnection conn = HttpTransport.open(url, connectMs, readMs);
+        conn.setRequestProperty("Accept-Charset", "windows-1255");
+        if (call != null) call.attach(conn);
+
+        HttpTransport.Response res = HttpTransport.execute(conn, MAX_PAGE_BYTES);
+        try {
+            if (res.code != 200) throw new HostGuard.StatusException(res.code);
+
+            StringBuilder sb = new StringBuilder(32 * 1024);
+            BodyExtractor.Scanner scanner = new BodyExtractor.Scanner();
+            Reader reader = new InputStreamReader(res.body(), PAGE_CHARSET);
+            char[] buf = new char[8 * 1024];
+            int n;
+            while ((n = reader.read(buf)) > 0) {
+                sb.append(buf, 0, n);
+                scanner.feed(sb, sb.length(), false);
+                if (scanner.bodyComplete(sb)) {
+                    // Stopping early: drop the socket instead of letting close() drain the page
+                    res.abort();
+                    break;
+                }
+            }
+            if (call != null && call.isCancelled()) return null;
+            return sb.toString();
+        } finally {
+            res.close();
+        }
+    }
+
+    /** Extracts clean plain text of the article body from a page, or null if none is found. */
+    public static String extractBody(String html) {
+        return BodyExtractor.extract(html);
+    }
+}
@@ -0,0 +1,263 @@
+package com.ynixon.rotter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Article bodies keyed by article URL, so re-expanding a story after a feed refresh or an
+ * app restart doesn't scrape rotter.net again.
+ *
+ * Two tiers: an in-memory LRU bounded by total characters, and one file per article under
+ * {@code dir} bounded by total bytes (oldest written evicted first). Both tiers treat an
+ * entry older than {@code ttlMs} as a miss. Only non-empty bodies are stored, so a failed
+ * fetch is retried next time. Disk access blocks; call {@link #get}/{@link #put} off the
+ * UI thread and use {@link #getFromMemory} there.
+ */
+public class BodyCache {
+
+    private static final class MemEntry {
+        final String body;
+        final long   storedAt;
+
+        MemEntry(String body, long storedAt) {
+            this.body     = body;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final File dir;
+    private final int  maxMemoryChars;
+    private final long maxDiskBytes;
+    private final long ttlMs;
+
+    // access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, MemEntry> memory = new LinkedHashMap<>(32, 0.75f, true);
+    private int memoryChars = 0;
+
+    private final Object diskLock = new Object();
+    private long diskBytes = -1; // -1 = not yet measured
+
+    private final AtomicLong memoryHits      = new AtomicLong();
+    private final AtomicLong diskHits        = new AtomicLong();
+    private final AtomicLong misses          = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions   = new AtomicLong();
+
+    public BodyCache(File dir, int maxMemoryChars, long maxDiskBytes, long ttlMs) {
+        this.dir            = dir;
+        this.maxMemoryChars = maxMemoryChars;
+        this.maxDiskBytes   = maxDiskBytes;
+        this.ttlMs          = ttlMs;
+    }
+
+    /** Memory tier only; safe to call on the UI thread. Does not count as a miss. */
+    public String getFromMemory(String url) {
+        if (url == null) return null;
+        synchronized (memory) {
+            MemEntry e = liveEntry(url);
+            if (e == null) return null;
+            memoryHits.incrementAndGet();
+            return e.body;
+        }
+    }
+
+    /**
+     * Whether the memory tier holds {@code url}, for probes like prefetch that shouldn't
+     * skew the hit rate: counted as neither hit nor miss. Still refreshes its LRU position.
+     */
+    public boolean containsInMemory(String url) {
+        if (url == null) return false;
+        synchronized (memory) {
+            return liveEntry(url) != null;
+        }
+    }
+
+    /** Memory, then disk (promoting disk hits into memory). Returns null on a miss. */
+    public String get(String url) {
+        if (url == null) return null;
+        String body = getFromMemory(url);
+        if (body != null) return body;
+
+        File file = fileFor(url);
+        long storedAt;
+        synchronized (diskLock) {
+            // 0 when the file is gone (evicted by a concurrent put): a miss, not an old entry
+            storedAt = file.lastModified();
+            if (storedAt != 0 && !isExpired(storedAt)) {
+                body = readFile(file);
+            } else if (storedAt != 0) {
+                deleteFile(file);
+            }
+        }
+        if (body == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        putInMemory(url, body, storedAt);
+        return body;
+    }
+
+    public void put(String url, String body) {
+        if (url == null || body == null || body.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        putInMemory(url, body, now);
+        writeToDisk(url, body);
+    }
+
+    // ── Stats ──────────────────────────────────────────────────────────
+
+    public long getMemoryHits()      { return memoryHits.get(); }
+    public long getDiskHits()        { return diskHits.get(); }
+    public long getMisses()          { return misses.get(); }
+    public long getMemoryEvictions() { return memoryEvictions.get(); }
+    public long getDiskEvictions()   { return diskEvictions.get(); }
+
+    /** Fraction of lookups answered by either tier, 0..1. */
+    public double getHitRate() {
+        long hits  = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /** Approximate heap used by cached bodies (UTF-16). */
+    public long getMemoryBytes() {
+        synchronized (memory) { return memoryChars * 2L; }
+    }
+
+    /** Bytes on disk; lists the cache directory on the first call if nothing was written yet. */
+    public long getDiskBytes() {
+        synchronized (diskLock) {
+            measureDisk();
+            return diskBytes;
+        }
+    }
+
+    // ── Memory tier ────────────────────────────────────────────────────
+
+    private void putInMemory(String url, String body, long storedAt) {
+        if (body.length() > maxMemoryChars) return;
+        synchronized (memory) {
+            MemEntry old = memory.put(url, new MemEntry(body, storedAt));
+            if (old != null) memoryChars -= old.body.length();
+            memoryChars += body.length();
+            Iterator<Map.Entry<String, MemEntry>> it = memory.entrySet().iterator();
+            while (memoryChars > maxMemoryChars && it.hasNext()) {
+                memoryChars -= it.next().getValue().body.length();
+                it.remove();
+                memoryEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    /** The entry for {@code url}, dropping it if expired. Caller holds the memory lock. */
+    private MemEntry liveEntry(String url) {
+        MemEntry e = memory.get(url);
+        if (e != null && isExpired(e.storedAt)) {
+            removeFromMemory(url);
+            return null;
+        }
+        return e;
+    }
+
+    private void removeFromMemory(String url) {
+        MemEntry old = memory.remove(url);
+        if (old != null) memoryChars -= old.body.length();
+    }
+
+    private boolean isExpired(long storedAt) {
+        return System.currentTimeMillis() - storedAt > ttlMs;
+    }
+
+    // ── Disk tier ──────────────────────────────────────────────────────
+
+    private void writeToDisk(String url, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxDiskBytes) return;
+        synchronized (diskLock) {
+            if (!dir.isDirectory() && !dir.mkdirs()) return;
+            measureDisk();
+            File file = fileFor(url);
+            if (file.exists()) deleteFile(file);
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                file.delete();
+                return;
+            }
+            diskBytes += bytes.length;
+            if (diskBytes > maxDiskBytes) trimDisk();
+        }
+    }
+
+    /** Deletes the oldest files until usage is back under budget. Caller holds diskLock. */
+    private void trimDisk() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (diskBytes <= maxDiskBytes) break;
+            deleteFile(f);
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    private void measureDisk() {
+        if (diskBytes >= 0) return;
+        long total = 0;
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) total += f.length();
+        diskBytes = total;
+    }
+
+    private void deleteFile(File file) {
+        long len = file.length();
+        if (file.delete() && diskBytes >= 0) diskBytes -= len;
+    }
+
+    private static String readFile(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int off = 0;
+            while (off < bytes.length) {
+                int n = in.read(bytes, off, bytes.length - off);
+                if (n < 0) break;
+                off += n;
+            }
+            return new String(bytes, 0, off, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private File fileFor(String url) {
+        return new File(dir, sha1Hex(url));
+    }
+
+    private static String sha1Hex(String s) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                  .append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(s.hashCode());
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Single-pass article body extraction for rotter.net pages.
+ *
+ * One left-to-right {@link Scanner} pass finds every container marker at once with an
+ * Aho–Corasick automaton, skips script/style blocks inline, and records where each
+ * {@code <p>}/{@code <td>} block starts. Nothing is lowercased or copied; tag names are
+ * compared case-insensitively in place. Afterwards the markers are tried most-specific
+ * first, then the Hebrew-density fallback from RotterWeb.py, then the longest paragraph.
+ */
+final class BodyExtractor {
+
+    private BodyExtractor() {}
+
+    /** Attribute markers of the element wrapping the scoop body, most specific first. */
+    static final String[] MARKERS = {
+        "id=\"scoopBody\"",
+        "id=\"scoop_body\"",
+        "class=\"scoopBody\"",
+        "class=\"scoop_body\"",
+        "class=\"newsbody\"",
+        "class=\"post_body\"",
+        "class=\"postbody\"",
+        "class=\"prow1 valmiddle\"",
+        "class=\"prow1\"",
+    };
+
+    private static final int MIN_MARKER_TEXT   = 20;  // chars of body text for a marker hit
+    private static final int MIN_DENSITY_HEB   = 30;  // Hebrew letters for a fallback block
+    private static final int MIN_DENSITY_TEXT  = 50;
+    private static final int MIN_PARAGRAPH     = 20;
+
+    // Aho–Corasick automaton over ASCII: DELTA[state][c] is the next state (failure links
+    // already folded in), OUTPUT[state] a bitmask of the markers that end in that state.
+    private static final int[][] DELTA;
+    private static final int[]   OUTPUT;
+    static {
+        int max = 1;
+        for (String m : MARKERS) max += m.length();
+        int[][] go = new int[max][128];
+        for (int[] row : go) Arrays.fill(row, -1);
+        int[] out = new int[max];
+        int states = 1;
+        for (int i = 0; i < MARKERS.length; i++) {
+            int s = 0;
+            for (int k = 0; k < MARKERS[i].length(); k++) {
+                char c = MARKERS[i].charAt(k);
+                if (go[s][c] < 0) go[s][c] = states++;
+                s = go[s][c];
+            }
+            out[s] |= 1 << i;
+        }
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < 128; c++) {
+            if (go[0][c] < 0) {
+                go[0][c] = 0;
+            } else {
+                queue.add(go[0][c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int r = queue.poll();
+            for (int c = 0; c < 128; c++) {
+                int u = go[r][c];
+                if (u < 0) {
+                    go[r][c] = go[fail[r]][c];
+                } else {
+                    fail[u] = go[fail[r]][c];
+                    out[u] |= out[fail[u]];
+                    queue.add(u);
+                }
+            }
+        }
+        DELTA  = Arrays.copyOf(go, states);
+        OUTPUT = Arrays.copyOf(out, states);
+    }
+
+    /** Names of the strategies {@link Scanner#result} can succeed with, for metrics. */
+    static final String STRATEGY_DENSITY   = "density";
+    static final String STRATEGY_PARAGRAPH = "paragraph";
+    static final String STRATEGY_NONE      = "none";
+
+    /** Extracts the body text of a complete page, or null. */
+    static String extract(CharSequence html) {
+        long start = System.nanoTime();
+        FetchMetrics.enter("extract");
+        try {
+            Scanner scanner = new Scanner();
+            scanner.feed(html, html.length(), true);
+            String body = scanner.result(html);
+            FetchMetrics.timeSince("extract." + scanner.strategy(), start);
+            return body;
+        } finally {
+            FetchMetrics.exit("extract");
+        }
+    }
+
+    /**
+     * Incremental scan state over a document that may still be growing (the caller appends
+     * to the same CharSequence and calls {@link #feed} again with the new end).
+     */
+    static final class Scanner {
+        private int pos   = 0;
+        private int state = 0;
+        private final int[] markerAt = new int[MARKERS.length];
+        private int found = 0;
+        private int tooShort = 0; // markers whose closed element held too little text
+
+        // Content start of every <p> / <td> seen (td entries are stored negated, minus one)
+        private int[] blocks = new int[64];
+        private int   blockCount = 0;
+
+        // Inside a script/style element whose closing tag hasn't arrived yet
+        private String rawName = null;
+
+        // The marker bodyComplete is waiting on: its element's name, where its content
+        // starts, and where the search for its closing tag resumes on the next chunk
+        private int    pendingMarker = -1;
+        private String pendingName;
+        private int    pendingStart;
+        private int    pendingScanned;
+
+        private String strategy = STRATEGY_NONE;
+
+        Scanner() {
+            Arrays.fill(markerAt, -1);
+        }
+
+        /**
+         * Scans {@code doc[pos, end)}. Unless {@code last}, stops before a tag whose '>' (or
+         * raw-text closing tag) hasn't been received yet and resumes there next time.
+         */
+        void feed(CharSequence doc, int end, boolean last) {
+            while (pos < end) {
+                if (rawName != null) {
+                    int close = HtmlText.indexOfCloseTag(doc, rawName, pos, end);
+                    int gt    = close < 0 ? -1 : HtmlText.indexOf(doc, '>', close, end);
+                    if (gt < 0) {
+                        if (last) { pos = end; return; }
+                        // keep a few chars back so a closing tag split across chunks is found
+                        pos = Math.max(pos, end - rawName.length() - 2);
+                        return;
+                    }
+                    rawName = null;
+                    pos   = gt + 1;
+                    state = 0;
+                    continue;
+                }
+
+                char c = doc.charAt(pos);
+                if (c == '<') {
+                    int gt = HtmlText.indexOf(doc, '>', pos + 1, end);
+                    if (gt < 0 && !last) return;
+                    int tagEnd = gt < 0 ? end : gt;
+                    String raw = HtmlText.rawTextElementAt(doc, pos + 1, tagEnd);
+                    if (raw != null) {
+                        rawName = raw;
+                        pos   = tagEnd + 1;
+                        state = 0;
+                        continue;
+                    }
+                    if (gt >= 0) {
+                        if (HtmlText.tagNameIs(doc, pos + 1, gt, "p"))  addBlock(gt + 1);
+                        if (HtmlText.tagNameIs(doc, pos + 1, gt, "td")) addBlock(-(gt + 1) - 1);
+                    }
+                }
+
+                state = c < 128 ? DELTA[state][c] : 0;
+                int hits = OUTPUT[state] & ~found;
+                if (hits != 0) {
+                    for (int m = 0; m < MARKERS.length; m++) {
+                        if ((hits & (1 << m)) != 0) markerAt[m] = pos - MARKERS[m].length() + 1;
+                    }
+                    found |= hits;
+                }
+                pos++;
+            }
+        }
+
+        /** Body text from everything scanned so far, or null. */
+        String result(CharSequence doc) {
+            int end = pos;
+            for (int m = 0; m < MARKERS.length; m++) {
+                if (markerAt[m] < 0) continue;
+                String text = markerText(doc, m, end);
+                if (text != null && text.length() > MIN_MARKER_TEXT) {
+                    strategy = "marker." + markerName(m);
+                    return text;
+                }
+            }
+            String dense = densestBlock(doc, end);
+            if (dense != null) {
+                strategy = STRATEGY_DENSITY;
+                return dense;
+            }
+            String para = longestParagraph(doc, end);
+            strategy = para != null ? STRATEGY_PARAGRAPH : STRATEGY_NONE;
+            return para;
+        }
+
+        /** Which strategy the last {@link #result} call succeeded with ("marker.id.scoopBody", ...). */
+        String strategy() { return strategy; }
+
+        /**
+         * Text of the container that marker {@code m} belongs to, or null if the marker wasn't
+         * seen or its element hasn't closed before {@code end}.
+         */
+        String markerText(CharSequence doc, int m, int end) {
+            int start = contentStart(doc, m, end);
+            if (start < 0) return null;
+            int contentEnd = findClose(doc, elementName(doc, m), start, end);
+            if (contentEnd < 0) return null;
+            return HtmlText.stripTags(doc, start, contentEnd);
+        }
+
+        /**
+         * True once the most specific usable marker seen so far has its element closed with
+         * enough text inside, so a streaming reader can stop. (A more specific marker could in
+         * principle still follow; rotter pages carry only one of them.)
+         *
+         * Called after every chunk, so it only looks at what arrived since the last call: the
+         * closing-tag search resumes where it stopped, and the container's text is built once,
+         * when it closes.
+         */
+        boolean bodyComplete(CharSequence doc) {
+            for (int m = 0; m < MARKERS.length; m++) {
+                if (markerAt[m] < 0 || (tooShort & (1 << m)) != 0) continue;
+                if (pendingMarker != m) {
+                    int start = contentStart(doc, m, pos);
+                    if (start < 0) return false; // opening tag not complete yet
+                    pendingMarker  = m;
+                    pendingName    = elementName(doc, m);
+                    pendingStart   = start;
+                    pendingScanned = start;
+                }
+                int close = resumeClose(doc, pos);
+                if (close < 0) return false; // not closed yet
+                pendingMarker = -1;
+                String text = HtmlText.stripTags(doc, pendingStart, close);
+                if (text.length() > MIN_MARKER_TEXT) return true;
+                tooShort |= 1 << m;
+            }
+            return false;
+        }
+
+        /**
+         * Index just past the opening tag marker {@code m} sits in, or -1 if the marker wasn't
+         * seen, the tag hasn't ended before {@code end} or it has no name.
+         */
+        private int contentStart(CharSequence doc, int m, int end) {
+            int at = markerAt[m];
+            if (at < 0) return -1;
+            int tagStart = lastIndexOf(doc, '<', at);
+            int tagEnd   = HtmlText.indexOf(doc, '>', at, end);
+            if (tagStart < 0 || tagEnd < 0) return -1;
+            char first = doc.charAt(tagStart + 1);
+            if (Character.isWhitespace(first) || first == '/' || first == '>') return -1;
+            return tagEnd + 1;
+        }
+
+        /** Lower-case name of the element marker {@code m} sits in (see {@link #contentStart}). */
+        private String elementName(CharSequence doc, int m) {
+            int tagStart = lastIndexOf(doc, '<', markerAt[m]);
+            int nameEnd  = tagStart + 1;
+            while (!Character.isWhitespace(doc.charAt(nameEnd)) && doc.charAt(nameEnd) != '/'
+                    && doc.charAt(nameEnd) != '>') nameEnd++;
+            return doc.subSequence(tagStart + 1, nameEnd).toString().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * {@link #findClose} for the pending marker, continued from {@link #pendingScanned}
+         * up to {@code end}. When the closing tag isn't there yet, leaves pendingScanned at the
+         * first tag (or script/style element) that hasn't fully arrived.
+         */
+        private int resumeClose(CharSequence doc, int end) {
+            int i = HtmlText.indexOf(doc, '<', pendingScanned, end);
+            while (i >= 0) {
+                int gt = HtmlText.indexOf(doc, '>', i + 1, end);
+                if (gt < 0) break;
+                if (doc.charAt(i + 1) == '/') {
+                    if (HtmlText.tagNameIs(doc, i + 2, gt, pendingName)) return i;
+                } else {
+                    int skipTo = HtmlText.skipRawTextElement(doc, i, gt, end);
+                    if (skipTo == end) break; // may not be closed yet; rescan it next time
+                    if (skipTo >= 0) i = skipTo - 1;
+                }
+                i = HtmlText.indexOf(doc, '<', i + 1, end);
+            }
+            pendingScanned = i < 0 ? end : i;
+            return -1;
+        }
+
+        /** Bitmask of markers seen so far, bit i for {@link #MARKERS}[i]. */
+        int foundMarkers() { return found; }
+
+        /** Chars consumed so far. */
+        int position() { return pos; }
+
+        private void addBlock(int encoded) {
+            if (blockCount == blocks.length) blocks = Arrays.copyOf(blocks, blockCount * 2);
+            blocks[blockCount++] = encoded;
+        }
+
+        /**
+         * RotterWeb.py fallback: among {@code <p>} then {@code <td>} blocks with at least
+         * MIN_DENSITY_HEB Hebrew letters, the one with the most Hebrew per link (prose over
+         * navigation menus).
+         */
+        private String densestBlock(CharSequence doc, int end) {
+            String best = null;
+            double bestScore = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                boolean td = pass == 1;
+                String name = td ? "td" : "p";
+                int consumedUntil = 0; // like a regex finditer, blocks don't overlap
+                for (int b = 0; b < blockCount; b++) {
+                    if ((blocks[b] < 0) != td) continue;
+                    int start = td ? -blocks[b] - 1 : blocks[b];
+                    if (start < consumedUntil) continue;
+                    int close = findClose(doc, name, start, end);
+                    if (close < 0) continue;
+                    consumedUntil = close;
+
+                    // Raw counts bound the stripped ones from above, so most blocks are
+                    // rejected without building their text
+                    int rawHeb = 0, links = 0;
+                    for (int i = start; i < close; i++) {
+                        char c = doc.charAt(i);
+                        if (HtmlText.isHebrewLetter(c)) rawHeb++;
+                        else if (c == '<' && HtmlText.tagNameIs(doc, i + 1, close, "a")) links++;
+                    }
+                    if (rawHeb < MIN_DENSITY_HEB
+                            || (double) rawHeb / (links + 1) <= bestScore) continue;
+
+                    String text = HtmlText.stripTags(doc, start, close);
+                    int heb = 0;
+                    for (int i = 0; i < text.length(); i++) {
+                        if (HtmlText.isHebrewLetter(text.charAt(i))) heb++;
+                    }
+                    if (heb < MIN_DENSITY_HEB) continue;
+                    double score = (double) heb / (links + 1);
+                    if (score > bestScore) { best = text; bestScore = score; }
+                }
+            }
+            return (best != null && best.length() > MIN_DENSITY_TEXT) ? best : null;
+        }
+
+        /** Last resort for pages without Hebrew prose: the longest {@code <p>} block. */
+        private String longestParagraph(CharSequence doc, int end) {
+            String best = null;
+            int bestLen = 0;
+            for (int b = 0; b < blockCount; b++) {
+                if (blocks[b] < 0) continue;
+                int start = blocks[b];
+                int close = findClose(doc, "p", start, end);
+                if (close < 0 || close - start <= bestLen) continue; // stripping only shrinks
+                String text = HtmlText.stripTags(doc, start, close);
+                if (text.length() > bestLen) { best = text; bestLen = text.length(); }
+            }
+            return bestLen > MIN_PARAGRAPH ? best : null;
+        }
+    }
+
+    /** Index of {@code </name>} at or after {@code from}, ignoring script/style content. */
+    static int findClose(CharSequence doc, String name, int from, int end) {
+        for (int i = HtmlText.indexOf(doc, '<', from, end); i >= 0;
+                 i = HtmlText.indexOf(doc, '<', i + 1, end)) {
+            if (i + 1 < end && doc.charAt(i + 1) == '/') {
+                if (HtmlText.tagNameIs(doc, i + 2, end, name)) return i;
+                continue;
+            }
+            int gt = HtmlText.indexOf(doc, '>', i + 1, end);
+            if (gt < 0) return -1;
+            int skipTo = HtmlText.skipRawTextElement(doc, i, gt, end);
+            if (skipTo >= 0) i = skipTo - 1;
+        }
+        return -1;
+    }
+
+    /** "id.scoopBody" for {@code id="scoopBody"}; spaces in the value become '_'. */
+    static String markerName(int m) {
+        String marker = MARKERS[m];
+        int eq = marker.indexOf('=');
+        return marker.substring(0, eq) + "."
+             + marker.substring(eq + 2, marker.length() - 1).replace(' ', '_');
+    }
+
+    private static int lastIndexOf(CharSequence s, char c, int from) {
+        for (int i = from; i >= 0; i--) {
+            if (s.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ynixon.rotter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fetches article bodies for the entries the ticker will show next, so expanding them is
+ * answered from {@link BodyCache} instead of the network.
+ *
+ * Loads go through {@link ArticleFetchCoordinator}, so a prefetch and a user expand of the
+ * same story share one download. Each call to {@link #prefetch} computes the window of the
+ * current entry and the next {@code depth} in the direction of travel, keeps the loads that
+ * are still in it and cancels the rest. The current entry stays in the window, so the load
+ * for the card just reached isn't cancelled right before the user expands it. The
+ * {@link Gate} is consulted on every re-target, so prefetching stops as soon as the device
+ * goes onto a metered network or low battery.
+ */
+public class BodyPrefetcher {
+
+    /** Decides whether background downloads are currently acceptable. */
+    public interface Gate {
+        boolean allowed();
+    }
+
+    private final BodyCache cache;
+    private final EntryState state;
+    private final Gate gate;
+    private final ArticleFetchCoordinator coordinator;
+    private final Map<String, ArticleFetchCoordinator.Ticket> tickets = new HashMap<>();
+    private volatile int depth;
+
+    public BodyPrefetcher(BodyCache cache, EntryState state, Gate gate, int depth,
+                          ArticleFetchCoordinator coordinator) {
+        this.cache       = cache;
+        this.state       = state;
+        this.gate        = gate;
+        this.depth       = depth;
+        this.coordinator = coordinator;
+    }
+
+    public void setDepth(int depth) { this.depth = depth; }
+    public int  getDepth()          { return depth; }
+
+    /**
+     * Re-targets the prefetch window at {@code index}, stepping forwards ({@code step} = 1)
+     * or backwards (-1). Only reads {@code entries} during the call.
+     */
+    public synchronized void prefetch(List<NewsEntry> entries, int index, int step) {
+        Set<String> wanted = new LinkedHashSet<>();
+        int n = entries.size();
+        if (n > 0 && depth > 0 && gate.allowed()) {
+            for (int i = 0; i <= Math.min(depth, n - 1); i++) {
+                NewsEntry e = entries.get(((index + i * step) % n + n) % n);
+                String url = e.getLink();
+                if (url == null || url.isEmpty() || state.isBodyFetched(e)) continue;
+                if (cache.containsInMemory(url)) continue;
+                wanted.add(url);
+            }
+        }
+
+        Iterator<Map.Entry<String, ArticleFetchCoordinator.Ticket>> it =
+                tickets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, ArticleFetchCoordinator.Ticket> t = it.next();
+            if (!wanted.contains(t.getKey())) {
+                t.getValue().cancel();
+                it.remove();
+            }
+        }
+        for (String url : wanted) {
+            if (!tickets.containsKey(url)) {
+                tickets.put(url, coordinator.request(url, body -> onLoaded(url)));
+            }
+        }
+    }
+
+    public synchronized void cancelAll() {
+        for (ArticleFetchCoordinator.Ticket t : tickets.values()) t.cancel();
+        tickets.clear();
+    }
+
+    private synchronized void onLoaded(String url) {
+        tickets.remove(url);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ynixon.rotter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What changes about an entry while the ticker holds it — the fetched body and the "new"
+ * badge — kept beside the immutable {@link NewsEntry}, keyed by {@link NewsEntry#getKey()}.
+ * Concurrent maps, so workers delivering bodies and the UI thread binding cards never block
+ * each other. {@link #retain} drops the state of entries that left the ticker.
+ */
+public final class EntryState {
+
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Set<String>         fresh  =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** null = not yet fetched; "" = fetched but empty; otherwise the article body. */
+    public String getBody(NewsEntry e) { return bodies.get(e.getKey()); }
+
+    public boolean isBodyFetched(NewsEntry e) { return bodies.containsKey(e.getKey()); }
+
+    public void setBody(NewsEntry e, String body) {
+        bodies.put(e.getKey(), body != null ? body : "");
+    }
+
+    public boolean isNew(NewsEntry e) { return fresh.contains(e.getKey()); }
+
+    public void setNew(NewsEntry e, boolean isNew) {
+        if (isNew) fresh.add(e.getKey());
+        else       fresh.remove(e.getKey());
+    }
+
+    /** Forgets every entry not in {@code entries}. */
+    public void retain(Collection<NewsEntry> entries) {
+        Set<String> keys = new HashSet<>(entries.size() * 2);
+        for (NewsEntry e : entries) keys.add(e.getKey());
+        bodies.keySet().retainAll(keys);
+        fresh.retainAll(keys);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ynixon.rotter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk copy of the last parsed feed, so a cold start can show headlines before the
+ * first network round trip completes and the ticker keeps working offline.
+ *
+ * Layout (DataOutputStream, big-endian): magic, version, savedAt, hoursBack, etag,
+ * lastModified, entry count, then title/date/link/description/timestamp per entry.
+ * Strings are length-prefixed UTF-8 with -1 for null. Unknown versions are ignored.
+ */
+public class FeedDiskCache {
+
+    private static final int MAGIC   = 0x52544653; // "RTFS"
+    private static final int VERSION = 1;
+    private static final int MAX_STRING_BYTES = 1 << 20; // sanity bound against corrupt files
+
+    public static final class Snapshot {
+        public final List<NewsEntry> entries;
+        public final int    hoursBack;
+        public final String etag;
+        public final String lastModified;
+        public final long   savedAt; // epoch millis
+
+        public Snapshot(List<NewsEntry> entries, int hoursBack,
+                        String etag, String lastModified, long savedAt) {
+            this.entries      = entries;
+            this.hoursBack    = hoursBack;
+            this.etag         = etag;
+            this.lastModified = lastModified;
+            this.savedAt      = savedAt;
+        }
+    }
+
+    /** Returns the stored snapshot, or null if there is none or it can't be read. */
+    public static Snapshot load(File file) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long   savedAt      = in.readLong();
+            int    hoursBack    = in.readInt();
+            String etag         = readString(in);
+            String lastModified = readString(in);
+            int count = in.readInt();
+            List<NewsEntry> entries = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                String title       = readString(in);
+                String date        = readString(in);
+                String link        = readString(in);
+                String description = readString(in);
+                long   timestamp   = in.readLong();
+                entries.add(new NewsEntry(title, date, link, description, timestamp));
+            }
+            return new Snapshot(entries, hoursBack, etag, lastModified, savedAt);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Writes the snapshot via a temp file so a crash mid-write never leaves a torn file. */
+    public static boolean save(File file, Snapshot snapshot) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.savedAt);
+            out.writeInt(snapshot.hoursBack);
+            writeString(out, snapshot.etag);
+            writeString(out, snapshot.lastModified);
+            out.writeInt(snapshot.entries.size());
+            for (NewsEntry e : snapshot.entries) {
+                writeString(out, e.getTitle());
+                writeString(out, e.getDate());
+                writeString(out, e.getLink());
+                writeString(out, e.getDescription());
+                out.writeLong(e.getTimestamp());
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+        return tmp.renameTo(file);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) { out.writeInt(-1); return; }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        if (len > MAX_STRING_BYTES) throw new IOException("corrupt snapshot");
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
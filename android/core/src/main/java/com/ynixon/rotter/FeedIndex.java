@@ -0,0 +1,73 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The retained feed window, newest first, with the timestamps in a parallel array so
+ * "everything from the last N hours" is a binary search plus a subList view.
+ *
+ * Immutable: a refresh builds a new index and swaps it in, so readers on any thread never
+ * see a half-updated list.
+ */
+public final class FeedIndex {
+
+    private final List<NewsEntry> entries;    // newest first, unmodifiable
+    private final long[]          timestamps; // epoch seconds, same order
+    private final int             hours;      // window the entries were collected for
+
+    public FeedIndex(List<NewsEntry> entries, int hours) {
+        List<NewsEntry> sorted = new ArrayList<>(entries);
+        if (!isNewestFirst(sorted)) {
+            Collections.sort(sorted, (a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()));
+        }
+        this.entries    = Collections.unmodifiableList(sorted);
+        this.timestamps = new long[sorted.size()];
+        for (int i = 0; i < timestamps.length; i++) timestamps[i] = sorted.get(i).getTimestamp();
+        this.hours      = hours;
+    }
+
+    /** Hours back from fetch time that this index is complete for. */
+    public int getHours() { return hours; }
+
+    public int size() { return timestamps.length; }
+
+    /** Every retained entry, newest first. */
+    public List<NewsEntry> all() { return entries; }
+
+    /** Entries of the last {@code hoursBack} hours as of {@code nowSeconds}, newest first. */
+    public List<NewsEntry> window(int hoursBack, long nowSeconds) {
+        return since(nowSeconds - (long) hoursBack * 60 * 60);
+    }
+
+    /** Entries with timestamp &gt;= {@code fromSeconds}, newest first. */
+    public List<NewsEntry> since(long fromSeconds) {
+        return entries.subList(0, firstOlderThan(fromSeconds));
+    }
+
+    /** Entries with {@code fromSeconds <= timestamp < toSeconds}, newest first. */
+    public List<NewsEntry> range(long fromSeconds, long toSeconds) {
+        int end   = firstOlderThan(fromSeconds);
+        int start = firstOlderThan(toSeconds);
+        return start >= end ? Collections.<NewsEntry>emptyList() : entries.subList(start, end);
+    }
+
+    /** Index of the first entry older than {@code seconds} (timestamps descend). */
+    private int firstOlderThan(long seconds) {
+        int lo = 0, hi = timestamps.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] >= seconds) lo = mid + 1;
+            else                            hi = mid;
+        }
+        return lo;
+    }
+
+    private static boolean isNewestFirst(List<NewsEntry> list) {
+        for (int i = 1; i < list.size(); i++) {
+            if (list.get(i).getTimestamp() > list.get(i - 1).getTimestamp()) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Merges a refreshed feed into the list the ticker is showing, keyed by link.
+ *
+ * Entries already on screen keep their instances (so the card showing one stays bound to
+ * it); only items that appeared are inserted, in timestamp order, and only items that
+ * dropped out of the feed window are removed. Both lists are newest-first, so
+ * in the usual refresh the additions land at the head and the evictions at the tail and
+ * the rest of the list isn't touched.
+ */
+public final class FeedMerger {
+
+    private FeedMerger() {}
+
+    public static final class Result {
+        /** Entries inserted into the list, newest first. */
+        public final List<NewsEntry> added;
+        public final int removed;
+        /** Ticker index after the merge; still on the same entry if it survived. */
+        public final int index;
+        /** True if the entry that was at the old index is still in the list. */
+        public final boolean keptCurrent;
+
+        Result(List<NewsEntry> added, int removed, int index, boolean keptCurrent) {
+            this.added       = added;
+            this.removed     = removed;
+            this.index       = index;
+            this.keptCurrent = keptCurrent;
+        }
+    }
+
+    /**
+     * Merges {@code loaded} (newest first) into {@code current} (newest first) in place.
+     *
+     * @param index ticker index into {@code current} before the merge
+     */
+    public static Result merge(List<NewsEntry> current, List<NewsEntry> loaded, int index) {
+        Set<String> fresh = new HashSet<>(loaded.size() * 2);
+        for (NewsEntry e : loaded) fresh.add(e.getKey());
+
+        // Evict what's no longer in the feed, compacting in one pass
+        int size = current.size();
+        int newIndex = -1;
+        boolean kept = false;
+        Set<String> have = new HashSet<>(size * 2);
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            NewsEntry e = current.get(r);
+            if (r == index) newIndex = w; // a removed current entry yields to its successor
+            String key = e.getKey();
+            if (!fresh.contains(key) || !have.add(key)) continue;
+            if (r == index) kept = true;
+            if (w != r) current.set(w, e);
+            w++;
+        }
+        int removed = size - w;
+        for (int r = size - 1; r >= w; r--) current.remove(r); // from the tail: no shifting
+
+        List<NewsEntry> added = new ArrayList<>();
+        for (NewsEntry e : loaded) {
+            if (have.add(e.getKey())) added.add(e);
+        }
+
+        if (!added.isEmpty()) {
+            if (current.isEmpty()
+                    || added.get(added.size() - 1).getTimestamp() >= current.get(0).getTimestamp()) {
+                // Usual case: everything new is newer than the head
+                current.addAll(0, added);
+                if (newIndex >= 0) newIndex += added.size();
+            } else {
+                for (NewsEntry e : added) {
+                    int at = insertionPoint(current, e.getTimestamp());
+                    current.add(at, e);
+                    if (newIndex >= 0 && at <= newIndex) newIndex++;
+                }
+            }
+        }
+
+        if (newIndex < 0) newIndex = 0; // nothing was showing: start at the newest
+        if (newIndex >= current.size()) newIndex = Math.max(0, current.size() - 1);
+        return new Result(added, removed, newIndex, kept);
+    }
+
+    /** First index whose entry is strictly older than {@code ts} (list is newest first). */
+    private static int insertionPoint(List<NewsEntry> list, long ts) {
+        int lo = 0, hi = list.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list.get(mid).getTimestamp() >= ts) lo = mid + 1;
+            else                                    hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ynixon.rotter;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One RSS feed polled by {@link RssFetcher}: its URL, the validators of its last 200
+ * response and the entries that response held, so a 304 replays them instead of
+ * downloading and re-parsing the feed. Thread-safe.
+ *
+ * Every fetch keeps {@link RssFetcher#WINDOW_HOURS} of entries, but a 200 only parses the
+ * caller's hours when the retained entries already hold the older part of the window; the
+ * parser then stops early at the caller's cutoff and the older entries are carried over.
+ */
+final class FeedSource {
+
+    private static final long MAX_FEED_BYTES = 4L * 1024 * 1024;
+
+    // A background poll of the largest response we fetch: room for a slow link
+    static final HostGuard.Timeouts TIMEOUTS = new HostGuard.Timeouts(6_000, 10_000, 20_000);
+
+    private volatile String url;
+
+    // Entries of the last 200 response and its validators, guarded by this
+    private String    etag;
+    private String    lastModified;
+    private FeedIndex retained;
+    private long      retainedAt; // epoch seconds the retained entries were current; 0 = restored
+
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+    private final AtomicInteger fullFetchCount   = new AtomicInteger();
+
+    FeedSource(String url) {
+        this.url = url;
+    }
+
+    String getUrl() { return url; }
+
+    /** Points the source at another copy of its feed; what it retained stays until replaced. */
+    void setUrl(String url) { this.url = url; }
+
+    /**
+     * Fetches the feed under its host's {@link HostGuard}: entries of the last
+     * {@code hoursBack} hours, newest first, or null if it failed. {@code abort} (may be
+     * null) stops further retries. {@code listener} hears of each entry once, even when a
+     * retry parses the feed again after an attempt broke off mid-document.
+     */
+    List<NewsEntry> fetch(int hoursBack, RssFetcher.EntryListener listener, HostGuard.Abort abort) {
+        long start = System.nanoTime();
+        Set<String> delivered = new HashSet<>();
+        RssFetcher.EntryListener once = listener == null ? null : e -> {
+            if (delivered.add(e.getKey())) listener.onEntry(e);
+        };
+        try {
+            URL u = new URL(url);
+            List<NewsEntry> result = HostGuard.forHost(u.getHost()).call(TIMEOUTS, abort,
+                    (connectMs, readMs) -> fetchOnce(u, hoursBack, once, connectMs, readMs));
+            FetchMetrics.timeSince("feed.source." + u.getHost(), start);
+            return result;
+        } catch (Exception e) {
+            // Counted by cause (HTTP status, exception type) for the debug report
+            FetchMetrics.error("feed", e);
+        }
+        return null;
+    }
+
+    private List<NewsEntry> fetchOnce(URL url, int hoursBack, RssFetcher.EntryListener listener,
+                                      int connectMs, int readMs) throws IOException {
+        int window = Math.max(hoursBack, RssFetcher.WINDOW_HOURS);
+        long now = System.currentTimeMillis() / 1000L;
+        long cutoff = now - (long) hoursBack * 60 * 60;
+        HttpURLConnection conn = HttpTransport.open(url, connectMs, readMs);
+
+        // Only revalidate when the retained entries cover the window;
+        // a wider one needs items the previous parse already discarded.
+        FeedIndex cached;
+        FeedIndex older; // holds the window's part before cutoff, or null: parse it all
+        synchronized (this) {
+            boolean covers = retained != null && window <= retained.getHours();
+            boolean validators = etag != null || lastModified != null;
+            cached = (validators && covers) ? retained : null;
+            if (cached != null) {
+                if (etag != null)         conn.setRequestProperty("If-None-Match", etag);
+                if (lastModified != null) conn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+            // Current as of a fetch after the cutoff, so nothing older than it is missing
+            older = (covers && retainedAt >= cutoff) ? retained : null;
+        }
+
+        try (HttpTransport.Response res = HttpTransport.execute(conn, MAX_FEED_BYTES)) {
+            // Read before the body: an early stop aborts the connection, headers and all
+            String newEtag         = res.header("ETag");
+            String newLastModified = res.header("Last-Modified");
+            if (res.code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                notModifiedCount.incrementAndGet();
+                confirm(cached, now);
+                List<NewsEntry> result = new ArrayList<>(cached.since(cutoff));
+                if (listener != null) {
+                    for (NewsEntry e : result) listener.onEntry(e);
+                }
+                return result;
+            }
+            if (res.code != 200) throw new HostGuard.StatusException(res.code);
+
+            RssFetcher.EntryListener inView = listener == null ? null : e -> {
+                if (e.getTimestamp() >= cutoff) listener.onEntry(e);
+            };
+            RssFetcher.Parsed parsed;
+            long parseStart = System.nanoTime();
+            FetchMetrics.enter("feed.parse");
+            try {
+                // Includes waiting for the body: the parser pulls straight off the socket
+                parsed = RssFetcher.parse(res.body(), older != null ? hoursBack : window,
+                        inView, now);
+                FetchMetrics.timeSince("feed.parse", parseStart);
+            } catch (XmlPullParserException e) {
+                // Almost always a response cut off mid-document; retry like any other I/O failure
+                throw new IOException("feed parse failed", e);
+            } finally {
+                FetchMetrics.exit("feed.parse");
+            }
+            // Drop the socket rather than let the stack drain the unread tail of the feed
+            if (parsed.truncated) res.abort();
+            fullFetchCount.incrementAndGet();
+            List<NewsEntry> entries = parsed.entries;
+            if (older != null) {
+                // Older than anything parsed, so the list stays newest first
+                entries = new ArrayList<>(entries);
+                entries.addAll(older.range(now - (long) window * 60 * 60, cutoff));
+            }
+            FeedIndex index = new FeedIndex(entries, window);
+            remember(newEtag, newLastModified, index, now);
+            return new ArrayList<>(index.since(cutoff));
+        }
+    }
+
+    /** The entries of the last 200 (or restored) response, or null. */
+    synchronized FeedIndex getIndex()        { return retained; }
+
+    synchronized String    getETag()         { return etag; }
+
+    synchronized String    getLastModified() { return lastModified; }
+
+    int getNotModifiedCount() { return notModifiedCount.get(); }
+
+    int getFullFetchCount()   { return fullFetchCount.get(); }
+
+    /** Seeds the retained entries and validators, unless a fetch already filled them. */
+    synchronized void restore(String savedEtag, String savedLastModified, FeedIndex index) {
+        // Current as of an unknown time, so the next 200 parses the whole window
+        if (retained == null) remember(savedEtag, savedLastModified, index, 0);
+    }
+
+    private synchronized void remember(String newEtag, String newLastModified, FeedIndex index,
+                                       long asOf) {
+        // Without validators the entries still serve local queries, just not revalidation
+        etag         = newEtag;
+        lastModified = newLastModified;
+        retained     = index;
+        retainedAt   = asOf;
+    }
+
+    /** A 304 for {@code index}: it is still the whole feed as of {@code asOf}. */
+    private synchronized void confirm(FeedIndex index, long asOf) {
+        if (retained == index) retainedAt = asOf;
+    }
+
+    @Override
+    public String toString() {
+        FeedIndex index = getIndex();
+        return url + ": " + (index != null ? index.size() : 0) + " items, full fetches "
+                + getFullFetchCount() + ", 304s " + getNotModifiedCount();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ynixon.rotter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide timings and counters for the fetch and parse paths.
+ *
+ * Names are dotted paths ("http.connect", "feed.items.accepted", "extract.marker.scoopBody",
+ * "error.feed.SocketTimeoutException"); {@link #dump()} lists them sorted so related ones
+ * sit together. Recording is lock-free apart from a per-timer monitor, cheap enough to
+ * leave on in release builds.
+ */
+public final class FetchMetrics {
+
+    private FetchMetrics() {}
+
+    /** Count, total and max of one timed step. */
+    static final class Timer {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+        }
+
+        synchronized String describe() {
+            if (count == 0) return "n=0";
+            return "n=" + count
+                + " avg=" + ms(totalNanos / count)
+                + " max=" + ms(maxNanos)
+                + " total=" + ms(totalNanos);
+        }
+    }
+
+    private static final Map<String, Timer>      timers   = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private static final long startedAt = System.currentTimeMillis();
+
+    /** Running count and last finish time of one background stage. */
+    private static final class Activity {
+        final AtomicInteger running = new AtomicInteger();
+        volatile long lastExitNanos;
+    }
+
+    private static final Map<String, Activity> activities = new ConcurrentHashMap<>();
+
+    /** Records one {@code name} step that took {@code nanos}. */
+    public static void time(String name, long nanos) {
+        Timer t = timers.get(name);
+        if (t == null) {
+            Timer fresh = new Timer();
+            t = timers.putIfAbsent(name, fresh);
+            if (t == null) t = fresh;
+        }
+        t.add(nanos);
+    }
+
+    /** Records a step that started at {@code startNanos} (a {@link System#nanoTime()} value). */
+    public static void timeSince(String name, long startNanos) {
+        time(name, System.nanoTime() - startNanos);
+    }
+
+    public static void count(String name) { add(name, 1); }
+
+    public static void add(String name, long delta) {
+        AtomicLong c = counters.get(name);
+        if (c == null) {
+            AtomicLong fresh = new AtomicLong();
+            c = counters.putIfAbsent(name, fresh);
+            if (c == null) c = fresh;
+        }
+        c.addAndGet(delta);
+    }
+
+    /** Counts a failure of {@code stage} under its cause (HTTP status or exception type). */
+    public static void error(String stage, Throwable t) {
+        String cause;
+        if (t instanceof HostGuard.StatusException) {
+            cause = "HTTP" + ((HostGuard.StatusException) t).code;
+        } else if (t instanceof HostGuard.OpenException) {
+            cause = "CircuitOpen";
+        } else {
+            // The root cause says more than the wrapper ("feed parse failed" -> EOFException)
+            Throwable root = t;
+            while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+            cause = root.getClass().getSimpleName();
+        }
+        count("error." + stage + "." + cause);
+    }
+
+    // ── Work in progress ─────────────────────────────────────────────────────
+
+    /**
+     * Marks a {@code stage} (e.g. "feed.parse") as running until the matching {@link #exit},
+     * so stalls elsewhere (dropped UI frames) can be related to the work going on at the time.
+     */
+    public static void enter(String stage) {
+        Activity a = activities.get(stage);
+        if (a == null) {
+            Activity fresh = new Activity();
+            a = activities.putIfAbsent(stage, fresh);
+            if (a == null) a = fresh;
+        }
+        a.running.incrementAndGet();
+    }
+
+    public static void exit(String stage) {
+        Activity a = activities.get(stage);
+        if (a == null) return;
+        a.lastExitNanos = System.nanoTime();
+        a.running.decrementAndGet();
+    }
+
+    /**
+     * Stages running now or finished since {@code sinceNanos} (a {@link System#nanoTime()}
+     * value), sorted and joined with '+'; empty when nothing was.
+     */
+    public static String activeSince(long sinceNanos) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Activity> e : new TreeMap<>(activities).entrySet()) {
+            Activity a = e.getValue();
+            if (a.running.get() > 0 || a.lastExitNanos - sinceNanos >= 0) {
+                if (sb.length() > 0) sb.append('+');
+                sb.append(e.getKey());
+            }
+        }
+        return sb.toString();
+    }
+
+    public static long getCount(String name) {
+        AtomicLong c = counters.get(name);
+        return c != null ? c.get() : 0;
+    }
+
+    /** Clears every timer and counter. */
+    public static void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /** Plain-text listing of every timer and counter, sorted by name. */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("uptime ").append((System.currentTimeMillis() - startedAt) / 1000).append(" s\n");
+        for (Map.Entry<String, Timer> e : new TreeMap<>(timers).entrySet()) {
+            sb.append(e.getKey()).append(": ").append(e.getValue().describe()).append('\n');
+        }
+        for (Map.Entry<String, AtomicLong> e : new TreeMap<>(counters).entrySet()) {
+            sb.append(e.getKey()).append(" = ").append(e.getValue().get()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String ms(long nanos) {
+        long tenths = nanos / 100_000;
+        return (tenths / 10) + "." + (tenths % 10) + "ms";
+    }
+}
@@ -0,0 +1,275 @@
+package com.ynixon.rotter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-host resilience for the fetchers: timeout budgets, bounded retries with exponential
+ * backoff and jitter, and a circuit breaker.
+ *
+ * Each call brings the {@link Timeouts} for its kind of request (a feed poll can wait
+ * longer than an article the user is waiting on); a host with timeouts of its own, such as
+ * a feed gateway, uses those instead.
+ *
+ * After {@link #FAILURE_THRESHOLD} consecutive failures the breaker opens and every call
+ * fails at once with {@link OpenException} instead of waiting out connect/read timeouts.
+ * When the cool-down ends one probe is let through (half-open); success closes the
+ * breaker, failure re-opens it with twice the cool-down, up to {@link #MAX_COOL_DOWN_MS}.
+ * All attempts of one call share a total time budget, so retries never stretch a call
+ * past what a single slow request used to cost.
+ */
+public final class HostGuard {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** One request attempt with the timeouts it must use. */
+    public interface Attempt<T> {
+        T run(int connectTimeoutMs, int readTimeoutMs) throws IOException;
+    }
+
+    /** Per-attempt connect/read timeouts and the total budget of one call, retries included. */
+    public static final class Timeouts {
+        public final int connectMs;
+        public final int readMs;
+        public final int budgetMs;
+
+        public Timeouts(int connectMs, int readMs, int budgetMs) {
+            this.connectMs = connectMs;
+            this.readMs    = readMs;
+            this.budgetMs  = budgetMs;
+        }
+    }
+
+    /** Lets a caller-side cancel stop retries without counting against the host. */
+    public interface Abort {
+        boolean aborted();
+    }
+
+    /** Thrown without touching the network while the breaker is open. */
+    public static final class OpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        OpenException(String host, long retryInMs) {
+            super(host + " circuit open, retry in " + retryInMs + " ms");
+        }
+    }
+
+    /** Non-2xx/304 response; 5xx and 429 are retried and count as host failures. */
+    public static final class StatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public final int code;
+
+        public StatusException(int code) {
+            super("HTTP " + code);
+            this.code = code;
+        }
+
+        boolean isHostFailure() { return code >= 500 || code == 429; }
+    }
+
+    static final int  FAILURE_THRESHOLD  = 3;
+    static final long BASE_COOL_DOWN_MS  = 30_000;
+    static final long MAX_COOL_DOWN_MS   = 10 * 60_000;
+    static final int  MAX_ATTEMPTS       = 3;
+    static final long BASE_BACKOFF_MS    = 500;
+    static final int  MIN_ATTEMPT_MS     = 1_000; // don't start an attempt with less budget
+
+    private static final Map<String, HostGuard> guards = new ConcurrentHashMap<>();
+    private static final Random random = new Random();
+
+    private final String host;
+    private volatile Timeouts own; // null: each call's own
+
+    // Breaker state, guarded by this
+    private State   state = State.CLOSED;
+    private int     consecutiveFailures;
+    private long    coolDownMs = BASE_COOL_DOWN_MS;
+    private long    openUntilMs;
+    private boolean probeInFlight;
+
+    private long trips;
+    private long shortCircuited;
+    private long retries;
+
+    private HostGuard(String host) {
+        this.host = host;
+    }
+
+    /** The guard shared by every fetch to {@code host}. */
+    public static HostGuard forHost(String host) {
+        String key = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        HostGuard g = guards.get(key);
+        if (g == null) {
+            HostGuard fresh = new HostGuard(key);
+            g = guards.putIfAbsent(key, fresh);
+            if (g == null) g = fresh;
+        }
+        return g;
+    }
+
+    /** Every guard created so far (for diagnostics). */
+    public static List<HostGuard> all() {
+        return new ArrayList<>(guards.values());
+    }
+
+    /**
+     * Gives this host its own timeouts, used instead of the ones its callers pass; null goes
+     * back to the callers'.
+     */
+    public void setTimeouts(Timeouts timeouts) {
+        own = timeouts;
+    }
+
+    /**
+     * Runs {@code attempt} under the breaker with {@code timeouts} (unless the host has its
+     * own), retrying host failures with backoff while the budget allows. {@code abort} may
+     * be null.
+     */
+    public <T> T call(Timeouts timeouts, Abort abort, Attempt<T> attempt) throws IOException {
+        Timeouts t = own != null ? own : timeouts;
+        long deadline = now() + t.budgetMs;
+        IOException last = null;
+        for (int n = 0; n < MAX_ATTEMPTS; n++) {
+            if (n > 0) {
+                long backoff = backoffMs(n);
+                if (now() + backoff + MIN_ATTEMPT_MS > deadline) break;
+                sleep(backoff);
+                synchronized (this) { retries++; }
+            }
+            if (abort != null && abort.aborted()) break;
+            boolean probe = acquire();
+            long remaining = Math.max(1, deadline - now());
+            try {
+                T result = attempt.run((int) Math.min(t.connectMs, remaining),
+                                       (int) Math.min(t.readMs, remaining));
+                onSuccess();
+                return result;
+            } catch (StatusException e) {
+                if (!e.isHostFailure()) {
+                    onSuccess(); // the host answered; the request was just wrong
+                    throw e;
+                }
+                last = e;
+                onFailure(probe);
+            } catch (IOException e) {
+                if (abort != null && abort.aborted()) {
+                    release(probe);
+                    throw e;
+                }
+                last = e;
+                onFailure(probe);
+            } catch (RuntimeException e) {
+                release(probe);
+                throw e;
+            }
+            if (getState() == State.OPEN) break;
+        }
+        if (last == null) throw new InterruptedIOException("aborted");
+        throw last;
+    }
+
+    public String getHost() { return host; }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && now() >= openUntilMs) return State.HALF_OPEN;
+        return state;
+    }
+
+    public synchronized int  getConsecutiveFailures() { return consecutiveFailures; }
+
+    /** Times the breaker has opened. */
+    public synchronized long getTripCount()           { return trips; }
+
+    /** Calls refused without a request while open. */
+    public synchronized long getShortCircuitCount()   { return shortCircuited; }
+
+    /** Extra attempts made after a failure. */
+    public synchronized long getRetryCount()          { return retries; }
+
+    /** Milliseconds until an open breaker lets a probe through; 0 if not open. */
+    public synchronized long getRetryInMs() {
+        return state == State.OPEN ? Math.max(0, openUntilMs - now()) : 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return host + ": " + getState() + ", failures=" + consecutiveFailures
+            + ", trips=" + trips + ", shortCircuited=" + shortCircuited + ", retries=" + retries;
+    }
+
+    // ── breaker ────────────────────────────────────────────────────────
+
+    /** Admits a request or throws; returns true if it is the half-open probe. */
+    private synchronized boolean acquire() throws OpenException {
+        if (state == State.CLOSED) return false;
+        long t = now();
+        if (state == State.OPEN && t < openUntilMs) {
+            shortCircuited++;
+            throw new OpenException(host, openUntilMs - t);
+        }
+        // Cool-down over: exactly one caller probes, the rest keep failing fast
+        if (probeInFlight) {
+            shortCircuited++;
+            throw new OpenException(host, 0);
+        }
+        state = State.HALF_OPEN;
+        probeInFlight = true;
+        return true;
+    }
+
+    private synchronized void release(boolean probe) {
+        if (probe) probeInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        coolDownMs = BASE_COOL_DOWN_MS;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        consecutiveFailures++;
+        if (probe) {
+            probeInFlight = false;
+            coolDownMs = Math.min(coolDownMs * 2, MAX_COOL_DOWN_MS);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilMs = now() + coolDownMs;
+        trips++;
+    }
+
+    // ── helpers ────────────────────────────────────────────────────────
+
+    /** Full jitter: uniform in [0, base * 2^(n-1)]. */
+    private static long backoffMs(int attempt) {
+        long cap = BASE_BACKOFF_MS << (attempt - 1);
+        synchronized (random) {
+            return (long) (random.nextDouble() * cap);
+        }
+    }
+
+    private static void sleep(long ms) throws InterruptedIOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted during backoff");
+        }
+    }
+
+    private static long now() { return System.currentTimeMillis(); }
+}
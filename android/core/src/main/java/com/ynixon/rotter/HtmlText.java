@@ -0,0 +1,221 @@
+package com.ynixon.rotter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plain-Java HTML text helpers used by the scrapers. Everything works on index ranges of a
+ * CharSequence so callers never copy or lowercase the whole page.
+ */
+final class HtmlText {
+
+    private HtmlText() {}
+
+    private static final Map<String, Character> NAMED_ENTITIES = new HashMap<>();
+    static {
+        String[] names = {
+            "amp", "lt", "gt", "quot", "apos", "nbsp", "ndash", "mdash", "hellip",
+            "laquo", "raquo", "lsquo", "rsquo", "ldquo", "rdquo", "sbquo", "bdquo",
+            "middot", "bull", "copy", "reg", "trade", "deg", "times", "shy", "lrm", "rlm",
+        };
+        char[] chars = {
+            '&', '<', '>', '"', '\'', '\u00A0', '\u2013', '\u2014', '\u2026',
+            '\u00AB', '\u00BB', '\u2018', '\u2019', '\u201C', '\u201D', '\u201A', '\u201E',
+            '\u00B7', '\u2022', '\u00A9', '\u00AE', '\u2122', '\u00B0', '\u00D7', '\u00AD',
+            '\u200E', '\u200F',
+        };
+        for (int i = 0; i < names.length; i++) NAMED_ENTITIES.put(names[i], chars[i]);
+    }
+
+    // Tags whose closing (or <br>) starts a new line in the extracted text
+    private static final String[] BLOCK_TAGS = {"p", "div", "li", "tr", "td", "h1", "h2", "h3",
+                                                "h4", "h5", "h6"};
+
+    /**
+     * Strips tags from {@code html[start, end)}, decodes entities and normalises whitespace.
+     * {@code <br>} and closing block tags become line breaks; source whitespace collapses to
+     * single spaces as a browser would; script/style content is dropped; at most one blank
+     * line is kept in a row.
+     */
+    static String stripTags(CharSequence html, int start, int end) {
+        StringBuilder out = new StringBuilder(Math.min(end - start, 4096));
+        int i = start;
+        while (i < end) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int close = indexOf(html, '>', i + 1, end);
+                if (close < 0) break; // truncated tag: drop the rest
+                int rawEnd = skipRawTextElement(html, i, close, end);
+                if (rawEnd >= 0) {
+                    i = rawEnd;
+                    continue;
+                }
+                if (isLineBreakTag(html, i + 1, close)) appendNewline(out);
+                i = close + 1;
+            } else if (c == '&') {
+                i = appendEntity(html, i, end, out);
+            } else if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+                appendSpace(out);
+                i++;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return trim(out);
+    }
+
+    /** Decodes entities in a short string (titles); returns {@code s} itself if it has none. */
+    static String decodeEntities(String s) {
+        if (s.indexOf('&') < 0) return s;
+        StringBuilder out = new StringBuilder(s.length());
+        int i = 0, n = s.length();
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c == '&') {
+                i = appendEntity(s, i, n, out);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * If the tag at {@code lt} opens a script or style element, returns the index just past
+     * its closing tag (or {@code end} if unterminated); otherwise -1.
+     */
+    static int skipRawTextElement(CharSequence s, int lt, int gt, int end) {
+        String name = rawTextElementAt(s, lt + 1, gt);
+        if (name == null) return -1;
+        int close = indexOfCloseTag(s, name, gt + 1, end);
+        if (close < 0) return end;
+        int closeGt = indexOf(s, '>', close, end);
+        return closeGt < 0 ? end : closeGt + 1;
+    }
+
+    /** "script" / "style" if {@code s[from..]} (just after '<') names one; otherwise null. */
+    static String rawTextElementAt(CharSequence s, int from, int end) {
+        if (tagNameIs(s, from, end, "script")) return "script";
+        if (tagNameIs(s, from, end, "style"))  return "style";
+        return null;
+    }
+
+    /** True if {@code s[from..]} is {@code name} (any case) followed by a tag-name boundary. */
+    static boolean tagNameIs(CharSequence s, int from, int end, String name) {
+        int n = name.length();
+        if (from + n > end) return false;
+        if (!regionMatchesIgnoreCase(s, from, name)) return false;
+        if (from + n == end) return true;
+        char next = s.charAt(from + n);
+        return next == '>' || next == '/' || Character.isWhitespace(next);
+    }
+
+    /** Index of {@code "</" + name} followed by a boundary, searching {@code s[from, end)}. */
+    static int indexOfCloseTag(CharSequence s, String name, int from, int end) {
+        for (int i = indexOf(s, '<', from, end); i >= 0; i = indexOf(s, '<', i + 1, end)) {
+            if (i + 1 < end && s.charAt(i + 1) == '/' && tagNameIs(s, i + 2, end, name)) return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(CharSequence s, char c, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (s.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    /** ASCII case-insensitive match of {@code lower} (already lowercase) at {@code s[at..]}. */
+    static boolean regionMatchesIgnoreCase(CharSequence s, int at, String lower) {
+        int n = lower.length();
+        if (at + n > s.length()) return false;
+        for (int k = 0; k < n; k++) {
+            char c = s.charAt(at + k);
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            if (c != lower.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    static boolean isHebrewLetter(char c) {
+        return c >= '\u05D0' && c <= '\u05EA'; // alef..tav
+    }
+
+    // ── internals ──────────────────────────────────────────────────────
+
+    private static boolean isLineBreakTag(CharSequence s, int from, int gt) {
+        if (tagNameIs(s, from, gt, "br")) return true;
+        if (from >= gt || s.charAt(from) != '/') return false;
+        for (String tag : BLOCK_TAGS) {
+            if (tagNameIs(s, from + 1, gt, tag)) return true;
+        }
+        return false;
+    }
+
+    /** Appends the entity starting at {@code s[amp]} and returns the index after it. */
+    private static int appendEntity(CharSequence s, int amp, int end, StringBuilder out) {
+        int semi = -1;
+        for (int k = amp + 1; k < end && k <= amp + 10; k++) {
+            if (s.charAt(k) == ';') { semi = k; break; }
+        }
+        if (semi < 0) {
+            out.append('&');
+            return amp + 1;
+        }
+        int cp = -1;
+        if (s.charAt(amp + 1) == '#') {
+            cp = parseCharRef(s, amp + 2, semi);
+        } else {
+            Character named = NAMED_ENTITIES.get(s.subSequence(amp + 1, semi).toString());
+            if (named != null) cp = named;
+        }
+        if (cp < 0) {
+            out.append('&');
+            return amp + 1;
+        }
+        if (cp == ' ' || cp == '\u00A0') appendSpace(out); // nbsp collapses like a space
+        else                              out.appendCodePoint(cp);
+        return semi + 1;
+    }
+
+    private static int parseCharRef(CharSequence s, int from, int end) {
+        int radix = 10;
+        if (from < end && (s.charAt(from) == 'x' || s.charAt(from) == 'X')) {
+            radix = 16;
+            from++;
+        }
+        if (from >= end) return -1;
+        int cp = 0;
+        for (int k = from; k < end; k++) {
+            int d = Character.digit(s.charAt(k), radix);
+            if (d < 0) return -1;
+            cp = cp * radix + d;
+            if (cp > Character.MAX_CODE_POINT) return -1;
+        }
+        return cp == 0 ? -1 : cp;
+    }
+
+    private static void appendSpace(StringBuilder out) {
+        int len = out.length();
+        if (len == 0) return;
+        char last = out.charAt(len - 1);
+        if (last != ' ' && last != '\n') out.append(' ');
+    }
+
+    private static void appendNewline(StringBuilder out) {
+        int len = out.length();
+        if (len > 0 && out.charAt(len - 1) == ' ') out.setLength(--len);
+        // keep at most one blank line
+        if (len >= 2 && out.charAt(len - 1) == '\n' && out.charAt(len - 2) == '\n') return;
+        if (len > 0) out.append('\n');
+    }
+
+    private static String trim(StringBuilder out) {
+        int a = 0, b = out.length();
+        while (a < b && Character.isWhitespace(out.charAt(a)))     a++;
+        while (b > a && Character.isWhitespace(out.charAt(b - 1))) b--;
+        return out.substring(a, b);
+    }
+}
@@ -1,14 +1,15 @@
 package com.ynixon.rotter;
 
-public class NewsEntry {
+/**
+ * One feed item. Immutable, so it can be handed between the fetch workers and the UI thread
+ * freely; what changes while it is on screen (body, new badge) lives in {@link EntryState}.
+ */
+public final class NewsEntry {
     private final String title;
     private final String date;
     private final String link;
     private final String description;
     private final long timestamp;
-    private boolean isNew;
-    // Populated lazily by ArticleFetcher (RSS <description> is always empty on rotter.net)
-    private String cachedBody = null;
 
     public NewsEntry(String title, String date, String link, String description, long timestamp) {
         this.title = title;
@@ -23,11 +24,9 @@ public class NewsEntry {
     public String getLink()        { return link; }
     public String getDescription() { return description; }
     public long   getTimestamp()   { return timestamp; }
-    public boolean isNew()         { return isNew; }
-    public void setIsNew(boolean isNew) { this.isNew = isNew; }
 
-    /** null = not yet fetched; "" = fetched but empty; otherwise the article body. */
-    public String getCachedBody()              { return cachedBody; }
-    public void   setCachedBody(String body)   { this.cachedBody = body; }
-    public boolean isBodyFetched()             { return cachedBody != null; }
+    /** Identity across refreshes: the link, or the title for items without one. */
+    public String getKey() {
+        return (link != null && !link.isEmpty()) ? link : title;
+    }
 }
@@ -0,0 +1,176 @@
+package com.ynixon.rotter;
+
+import java.util.TimeZone;
+
+/**
+ * RSS pubDate parsing ("Sun, 01 Jan 2023 12:00:00 +0200") straight from the characters.
+ *
+ * Replaces the shared SimpleDateFormat instances, which are not thread-safe. Holds no
+ * mutable state and throws nothing on the normal path, so it is safe to call from any number
+ * of fetch threads. Accepts an optional weekday, one- or two-digit days, optional seconds,
+ * numeric zones (+0200, -05:00) and the common named zones; a missing zone is taken as GMT.
+ * Dates that don't exist, such as 31 Feb, are rejected.
+ */
+final class PubDateParser {
+
+    private PubDateParser() {}
+
+    /** Returned by {@link #parseEpochSeconds} when the value can't be parsed. */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+
+    // IST is read as Israel Standard Time, not India or Irish time: the feeds are Israeli
+    private static final String[] ZONE_NAMES = {
+        "GMT", "UT", "UTC", "Z", "EST", "EDT", "CST", "CDT", "MST", "MDT", "PST", "PDT",
+        "IST", "IDT", "CET", "CEST", "BST",
+    };
+    private static final int[] ZONE_MINUTES = {
+        0, 0, 0, 0, -300, -240, -360, -300, -420, -360, -480, -420,
+        120, 180, 60, 120, 60,
+    };
+
+    /** Epoch seconds of {@code s}, or {@link #INVALID}. */
+    static long parseEpochSeconds(CharSequence s) {
+        if (s == null) return INVALID;
+        int n = s.length();
+        int i = skipSpaces(s, 0, n);
+
+        // Optional "Sun," prefix
+        int comma = i;
+        while (comma < n && isLetter(s.charAt(comma))) comma++;
+        if (comma < n && comma > i && s.charAt(comma) == ',') i = skipSpaces(s, comma + 1, n);
+
+        // Day: one or two digits
+        int day = 0, digits = 0;
+        while (i < n && digits < 2 && isDigit(s.charAt(i))) {
+            day = day * 10 + (s.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits == 0 || day < 1 || day > 31) return INVALID;
+        i = skipSpaces(s, i, n);
+
+        // Month: three letters, any case
+        if (i + 3 > n) return INVALID;
+        int month = monthIndex(s.charAt(i), s.charAt(i + 1), s.charAt(i + 2));
+        if (month < 0) return INVALID;
+        i = skipSpaces(s, i + 3, n);
+
+        // Year: four digits (two-digit years per RFC 822 are taken as 20xx)
+        int year = 0;
+        digits = 0;
+        while (i < n && digits < 4 && isDigit(s.charAt(i))) {
+            year = year * 10 + (s.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits == 2) year += 2000;
+        else if (digits != 4) return INVALID;
+        if (day > daysInMonth(year, month)) return INVALID;
+        i = skipSpaces(s, i, n);
+
+        // Time: HH:mm[:ss]
+        int hour = twoDigits(s, i, n);
+        if (hour < 0 || hour > 23 || i + 2 >= n || s.charAt(i + 2) != ':') return INVALID;
+        int minute = twoDigits(s, i + 3, n);
+        if (minute < 0 || minute > 59) return INVALID;
+        i += 5;
+        int second = 0;
+        if (i < n && s.charAt(i) == ':') {
+            second = twoDigits(s, i + 1, n);
+            if (second < 0 || second > 60) return INVALID;
+            i += 3;
+        }
+        i = skipSpaces(s, i, n);
+
+        int offsetMinutes = i < n ? zoneOffsetMinutes(s, i, n) : 0;
+        if (offsetMinutes == Integer.MIN_VALUE) return INVALID;
+
+        long days = daysFromCivil(year, month + 1, day);
+        return days * 86400L + hour * 3600L + minute * 60L + second - offsetMinutes * 60L;
+    }
+
+    /** "HH:mm" of {@code epochSeconds} in {@code tz}. */
+    static String formatTime(long epochSeconds, TimeZone tz) {
+        long local = epochSeconds + tz.getOffset(epochSeconds * 1000L) / 1000L;
+        int secOfDay = (int) (local % 86400L);
+        if (secOfDay < 0) secOfDay += 86400;
+        int h = secOfDay / 3600, m = (secOfDay / 60) % 60;
+        return new String(new char[] {
+            (char) ('0' + h / 10), (char) ('0' + h % 10), ':',
+            (char) ('0' + m / 10), (char) ('0' + m % 10),
+        });
+    }
+
+    // ── internals ──────────────────────────────────────────────────────
+
+    /** Offset east of UTC in minutes, or Integer.MIN_VALUE if unrecognised. */
+    private static int zoneOffsetMinutes(CharSequence s, int i, int n) {
+        char c = s.charAt(i);
+        if (c == '+' || c == '-') {
+            int hh = twoDigits(s, i + 1, n);
+            int at = i + 3;
+            if (at < n && s.charAt(at) == ':') at++;
+            int mm = twoDigits(s, at, n);
+            if (hh < 0 || mm < 0 || mm > 59) return Integer.MIN_VALUE;
+            int minutes = hh * 60 + mm;
+            return c == '-' ? -minutes : minutes;
+        }
+        int end = i;
+        while (end < n && isLetter(s.charAt(end))) end++;
+        for (int z = 0; z < ZONE_NAMES.length; z++) {
+            String name = ZONE_NAMES[z];
+            if (name.length() != end - i) continue;
+            boolean match = true;
+            for (int k = 0; k < name.length() && match; k++) {
+                match = Character.toUpperCase(s.charAt(i + k)) == name.charAt(k);
+            }
+            if (match) return ZONE_MINUTES[z];
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private static int monthIndex(char a, char b, char c) {
+        a = Character.toLowerCase(a);
+        b = Character.toLowerCase(b);
+        c = Character.toLowerCase(c);
+        for (int m = 0; m < 12; m++) {
+            int k = m * 3;
+            if (MONTHS.charAt(k) == a && MONTHS.charAt(k + 1) == b && MONTHS.charAt(k + 2) == c) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    /** @param month 0-based */
+    private static int daysInMonth(int year, int month) {
+        if (month == 1) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 3 || month == 5 || month == 8 || month == 10 ? 30 : 31;
+    }
+
+    /** Days since 1970-01-01 of a proleptic Gregorian date (Howard Hinnant's algorithm). */
+    private static long daysFromCivil(int y, int m, int d) {
+        y -= m <= 2 ? 1 : 0;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (m + (m > 2 ? -3 : 9)) + 2) / 5 + d - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468L;
+    }
+
+    private static int twoDigits(CharSequence s, int i, int n) {
+        if (i + 2 > n || !isDigit(s.charAt(i)) || !isDigit(s.charAt(i + 1))) return -1;
+        return (s.charAt(i) - '0') * 10 + (s.charAt(i + 1) - '0');
+    }
+
+    private static int skipSpaces(CharSequence s, int i, int n) {
+        while (i < n && s.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static boolean isDigit(char c)  { return c >= '0' && c <= '9'; }
+    private static boolean isLetter(char c) { return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'); }
+}
@@ -0,0 +1,116 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Picks the delay until the next feed poll from how fast headlines have been arriving.
+ *
+ * Keeps an exponentially weighted average of the gap between consecutive items (by pubDate)
+ * and polls about {@link #POLLS_PER_GAP} times per expected item, so breaking news is polled
+ * at the lower bound and a silent night drifts towards the upper one. Every poll that brings
+ * nothing new stretches the interval further. Each delay is spread by ±jitter so devices
+ * that started together don't stay in step.
+ */
+public class RefreshScheduler {
+
+    private static final double GAP_ALPHA     = 0.3; // weight of the newest gap in the average
+    private static final double POLLS_PER_GAP = 2;
+    private static final double QUIET_BACKOFF = 1.5; // interval growth per empty poll
+    private static final int    MAX_QUIET     = 8;
+
+    private final long   minMs;
+    private final long   maxMs;
+    private final long   initialMs;
+    private final double jitter;
+    private final Random random;
+
+    private double gapSec     = -1;             // average seconds between items; -1 = unknown
+    private long   newestSeen = Long.MIN_VALUE; // timestamp of the newest item polled so far
+    private int    quietPolls = 0;
+
+    /**
+     * @param jitter fraction of the interval each delay may move either way (0.15 = ±15%)
+     */
+    public RefreshScheduler(long minMs, long maxMs, long initialMs, double jitter) {
+        this(minMs, maxMs, initialMs, jitter, new Random());
+    }
+
+    RefreshScheduler(long minMs, long maxMs, long initialMs, double jitter, Random random) {
+        this.minMs     = minMs;
+        this.maxMs     = maxMs;
+        this.initialMs = initialMs;
+        this.jitter    = jitter;
+        this.random    = random;
+    }
+
+    /**
+     * Records the outcome of a poll.
+     *
+     * @param polled entries the poll returned, newest first; null or empty if it failed or
+     *               found nothing
+     */
+    public synchronized void onPoll(List<NewsEntry> polled) {
+        if (polled == null || polled.isEmpty()) {
+            quietPolls++;
+            return;
+        }
+        if (newestSeen == Long.MIN_VALUE) {
+            // First look at the feed: its own spacing is the best starting estimate
+            int n = polled.size();
+            long span = polled.get(0).getTimestamp() - polled.get(n - 1).getTimestamp();
+            if (n >= 2 && span > 0) gapSec = capGap((double) span / (n - 1));
+            newestSeen = polled.get(0).getTimestamp();
+            quietPolls = 0;
+            return;
+        }
+
+        List<Long> fresh = new ArrayList<>();
+        for (NewsEntry e : polled) {
+            if (e.getTimestamp() > newestSeen) fresh.add(e.getTimestamp());
+        }
+        if (fresh.isEmpty()) {
+            quietPolls++;
+            return;
+        }
+        Collections.sort(fresh);
+        long prev = newestSeen;
+        for (long ts : fresh) {
+            addGap(ts - prev);
+            prev = ts;
+        }
+        newestSeen = prev;
+        quietPolls = 0;
+    }
+
+    /** Current interval before jitter. */
+    public synchronized long getIntervalMs() {
+        double base = gapSec < 0 ? initialMs : gapSec * 1000 / POLLS_PER_GAP;
+        base *= Math.pow(QUIET_BACKOFF, Math.min(quietPolls, MAX_QUIET));
+        return Math.max(minMs, Math.min(maxMs, (long) base));
+    }
+
+    /** Delay until the next poll, jitter applied; never outside the configured bounds. */
+    public synchronized long nextDelayMs() {
+        double spread = 1 + jitter * (2 * random.nextDouble() - 1);
+        return Math.max(minMs, Math.min(maxMs, (long) (getIntervalMs() * spread)));
+    }
+
+    /** Average seconds between items seen so far, or -1 before the first poll. */
+    public synchronized double getGapSeconds() { return gapSec; }
+
+    private void addGap(long seconds) {
+        double gap = capGap(Math.max(1, seconds));
+        gapSec = gapSec < 0 ? gap : GAP_ALPHA * gap + (1 - GAP_ALPHA) * gapSec;
+    }
+
+    /**
+     * A gap longer than the one that already maps to the upper bound only says "quiet"; capping
+     * it keeps one overnight pause from slowing the first minutes of the next burst.
+     */
+    private double capGap(double seconds) {
+        return Math.min(seconds, maxMs / 1000.0 * POLLS_PER_GAP);
+    }
+}
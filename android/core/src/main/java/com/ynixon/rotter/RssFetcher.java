@@ -0,0 +1,412 @@
+package com.ynixon.rotter;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Polls the feeds the ticker shows: rotter.net's news feed (or whatever {@link #setFeedUrl}
+ * points at) and any {@link #setExtraFeeds extra feeds}, keeping their combined window for
+ * local range queries.
+ *
+ * With extra feeds, one poll fetches them all in parallel — the main feed on the calling
+ * thread, the rest on the I/O pool — and waits at most {@link #SOURCE_TIMEOUT_MS} for
+ * them, so it takes as long as the slowest source that answers, not the sum of all of
+ * them. A source that is down or too slow contributes what it returned last time. The
+ * per-source lists, each already newest first, are combined with a k-way merge that drops
+ * repeated links.
+ */
+public class RssFetcher {
+
+    private static final String RSS_URL = "https://www.rotter.net/rss/rotternews.xml";
+
+    /**
+     * Hours of feed every fetch keeps, whatever the caller asked for. Narrower views (the
+     * hours spinner) are range queries on the retained {@link FeedIndex}, not new fetches.
+     */
+    public static final int WINDOW_HOURS = 16;
+
+    /** How long a poll waits for the extra feeds before going on without them. */
+    public static final long SOURCE_TIMEOUT_MS = 12_000;
+
+    private static final FeedSource primary = new FeedSource(RSS_URL);
+    private static volatile List<FeedSource> extras = Collections.emptyList();
+
+    // Combined window of every source as of the last poll or restore
+    private static final Object indexLock = new Object();
+    private static FeedIndex retained;
+
+    // The feed is newest-first, so once this many consecutive items are older than the
+    // cutoff by more than STALE_SLACK_SEC the rest of the document can be skipped.
+    // Items inside the slack neither count towards nor reset the run (out-of-order tolerance).
+    private static final int  STALE_RUN_LIMIT = 5;
+    private static final long STALE_SLACK_SEC = 30 * 60;
+
+    /**
+     * Receives each accepted entry as soon as its &lt;item&gt; is parsed, on a fetching thread;
+     * with several feeds, calls come from several threads but never at the same time.
+     */
+    public interface EntryListener {
+        void onEntry(NewsEntry entry);
+    }
+
+    /**
+     * Points fetches at another copy of the feed (a feed gateway, or the load harness's
+     * local server); null restores rotter.net.
+     */
+    public static void setFeedUrl(String url) {
+        primary.setUrl(url != null ? url : RSS_URL);
+    }
+
+    /**
+     * Sets the feeds polled alongside the main one (other rotter.net sections, other RSS
+     * sites); replaces the previous list. Sources whose URL stays keep their validators.
+     */
+    public static void setExtraFeeds(List<String> urls) {
+        Map<String, FeedSource> previous = new HashMap<>();
+        for (FeedSource s : extras) previous.put(s.getUrl(), s);
+        List<FeedSource> list = new ArrayList<>();
+        for (String u : urls) {
+            String url = u != null ? u.trim() : "";
+            if (url.isEmpty() || url.equals(primary.getUrl())) continue;
+            FeedSource s = previous.remove(url);
+            list.add(s != null ? s : new FeedSource(url));
+        }
+        extras = Collections.unmodifiableList(list);
+    }
+
+    public static List<NewsEntry> fetch(int hoursBack) {
+        return fetch(hoursBack, null);
+    }
+
+    /**
+     * Fetches every feed, handing every entry inside the window to {@code listener} (may be
+     * null) while the downloads are still in progress. Returns the combined list, newest
+     * first, or null if no feed could be fetched.
+     */
+    public static List<NewsEntry> fetch(int hoursBack, EntryListener listener) {
+        List<FeedSource> others = extras;
+        if (others.isEmpty()) {
+            List<NewsEntry> result = primary.fetch(hoursBack, listener, null);
+            if (result != null) {
+                synchronized (indexLock) { retained = primary.getIndex(); }
+            }
+            return result;
+        }
+
+        if (!fetchAll(others, hoursBack, listener)) return null;
+        // Every source's full window, fresh or as last fetched, so no source's items
+        // flicker out of the ticker because it missed one poll
+        List<List<NewsEntry>> windows = new ArrayList<>();
+        int hours = Integer.MAX_VALUE;
+        for (FeedSource s : sources(others)) {
+            FeedIndex index = s.getIndex();
+            if (index == null) continue;
+            windows.add(index.all());
+            hours = Math.min(hours, index.getHours());
+        }
+        long mergeStart = System.nanoTime();
+        FeedIndex combined = new FeedIndex(mergeNewestFirst(windows), hours);
+        FetchMetrics.timeSince("feed.merge", mergeStart);
+        synchronized (indexLock) { retained = combined; }
+        long cutoff = System.currentTimeMillis() / 1000L - (long) hoursBack * 60 * 60;
+        return new ArrayList<>(combined.since(cutoff));
+    }
+
+    /**
+     * Fetches the main feed here and {@code others} on the I/O pool, giving up on the ones
+     * still running once {@link #SOURCE_TIMEOUT_MS} has passed. True if any succeeded.
+     */
+    private static boolean fetchAll(List<FeedSource> others, int hoursBack, EntryListener listener) {
+        EntryListener shared = listener == null ? null : e -> {
+            synchronized (listener) { listener.onEntry(e); }
+        };
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SOURCE_TIMEOUT_MS);
+        // Past the deadline a source stops retrying; its attempt in flight runs out on its own
+        HostGuard.Abort overdue = () -> System.nanoTime() - deadline > 0;
+
+        List<Future<List<NewsEntry>>> pending = new ArrayList<>(others.size());
+        List<FeedSource> inline = new ArrayList<>();
+        for (FeedSource s : others) {
+            try {
+                pending.add(AppExecutors.get().io().submit(() -> s.fetch(hoursBack, shared, overdue)));
+            } catch (RejectedExecutionException full) {
+                inline.add(s);
+            }
+        }
+
+        int ok = primary.fetch(hoursBack, shared, overdue) != null ? 1 : 0;
+        for (FeedSource s : inline) {
+            if (s.fetch(hoursBack, shared, overdue) != null) ok++;
+        }
+        for (Future<List<NewsEntry>> f : pending) {
+            try {
+                long wait = Math.max(0, deadline - System.nanoTime());
+                if (f.get(wait, TimeUnit.NANOSECONDS) != null) ok++;
+            } catch (TimeoutException e) {
+                f.cancel(false);
+                FetchMetrics.count("feed.source.timeout");
+            } catch (ExecutionException e) {
+                FetchMetrics.error("feed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return ok > 0;
+    }
+
+    /** Main feed first, so it wins ties and duplicates in the merge. */
+    private static List<FeedSource> sources(List<FeedSource> others) {
+        List<FeedSource> all = new ArrayList<>(others.size() + 1);
+        all.add(primary);
+        all.addAll(others);
+        return all;
+    }
+
+    /** Next unmerged entry of one source's list. */
+    private static final class Cursor implements Comparable<Cursor> {
+        final List<NewsEntry> list;
+        final int source;
+        int  pos;
+        long ts; // timestamp of list.get(pos)
+
+        Cursor(List<NewsEntry> list, int source) {
+            this.list   = list;
+            this.source = source;
+            this.ts     = list.get(0).getTimestamp();
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            if (ts != o.ts) return ts > o.ts ? -1 : 1; // newest first
+            return Integer.compare(source, o.source);
+        }
+    }
+
+    /**
+     * Merges lists that are each newest first into one newest-first list, keeping the first
+     * entry seen of every {@link NewsEntry#getKey() key}. A heap holds the lists' heads; the
+     * top list is drained until another list's head is newer, so runs from one feed cost one
+     * heap operation rather than one per entry. O(n log k) for k lists, nothing re-sorted.
+     */
+    static List<NewsEntry> mergeNewestFirst(List<List<NewsEntry>> lists) {
+        int total = 0;
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, lists.size()));
+        for (int i = 0; i < lists.size(); i++) {
+            List<NewsEntry> l = lists.get(i);
+            total += l.size();
+            if (!l.isEmpty()) heads.add(new Cursor(l, i));
+        }
+        List<NewsEntry> merged = new ArrayList<>(total);
+        Set<String> keys = new HashSet<>(total * 2);
+        while (!heads.isEmpty()) {
+            Cursor c = heads.poll();
+            Cursor rival = heads.peek();
+            int size = c.list.size();
+            while (true) {
+                NewsEntry e = c.list.get(c.pos);
+                if (keys.add(e.getKey())) merged.add(e);
+                if (++c.pos == size) break;
+                c.ts = c.list.get(c.pos).getTimestamp();
+                if (rival != null && c.compareTo(rival) > 0) {
+                    heads.add(c);
+                    break;
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Entries of the last {@code hoursBack} hours from the retained window, newest first,
+     * without touching the network; null if nothing retained covers that many hours.
+     */
+    public static List<NewsEntry> query(int hoursBack) {
+        FeedIndex index = getIndex();
+        if (index == null || hoursBack > index.getHours()) return null;
+        return new ArrayList<>(index.window(hoursBack, System.currentTimeMillis() / 1000L));
+    }
+
+    /** The retained window (for persisting), or null before the first fetch or restore. */
+    public static FeedIndex getIndex() {
+        synchronized (indexLock) { return retained; }
+    }
+
+    /** Number of polls answered with 304 Not Modified (no download, no parse), all feeds. */
+    public static int getNotModifiedCount() {
+        int n = 0;
+        for (FeedSource s : sources(extras)) n += s.getNotModifiedCount();
+        return n;
+    }
+
+    /** Number of polls that downloaded and parsed a full feed, all feeds. */
+    public static int getFullFetchCount() {
+        int n = 0;
+        for (FeedSource s : sources(extras)) n += s.getFullFetchCount();
+        return n;
+    }
+
+    /** ETag of the main feed's response the retained entries came from, or null. */
+    public static String getETag() { return primary.getETag(); }
+
+    /** Last-Modified of the main feed's response the retained entries came from, or null. */
+    public static String getLastModified() { return primary.getLastModified(); }
+
+    /** One line per feed: URL, retained items and fetch counts. */
+    public static String describeSources() {
+        StringBuilder sb = new StringBuilder();
+        for (FeedSource s : sources(extras)) sb.append(s).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Seeds the retained window and revalidation state from a persisted snapshot, so the
+     * first poll after a cold start can already be answered with 304. Ignored if a fetch
+     * has already run.
+     */
+    public static void restoreValidators(String savedEtag, String savedLastModified,
+                                         List<NewsEntry> entries, int hoursBack) {
+        FeedIndex index = new FeedIndex(entries, hoursBack);
+        synchronized (indexLock) {
+            if (retained != null) return;
+            retained = index;
+        }
+        // A combined window isn't the main feed's; a 304 must not replay other feeds' items
+        // as its own, so with extra feeds the first poll downloads everything again
+        if (extras.isEmpty()) primary.restore(savedEtag, savedLastModified, index);
+    }
+
+    // Plain XmlPullParser API instead of android.util.Xml, so parsing also runs on a JVM
+    // (with kxml2 on the classpath); on Android the factory returns the platform parser
+    private static final class XmlHolder {
+        static final XmlPullParserFactory FACTORY;
+        static {
+            try {
+                FACTORY = XmlPullParserFactory.newInstance();
+            } catch (XmlPullParserException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static final class Parsed {
+        final List<NewsEntry> entries;
+        final boolean truncated; // stopped before END_DOCUMENT
+
+        Parsed(List<NewsEntry> entries, boolean truncated) {
+            this.entries   = entries;
+            this.truncated = truncated;
+        }
+    }
+
+    /**
+     * Parses the feed, keeping items from the {@code hoursBack} hours before {@code nowSeconds}.
+     * Package-private (with an explicit clock) so the benchmarks can run it on recorded feeds.
+     */
+    static Parsed parse(InputStream is, int hoursBack, EntryListener listener, long nowSeconds)
+            throws XmlPullParserException, IOException {
+
+        List<NewsEntry> result = new ArrayList<>();
+        long cutoff = nowSeconds - (long) hoursBack * 60 * 60;
+        long staleBefore = cutoff - STALE_SLACK_SEC;
+        TimeZone tz = TimeZone.getDefault(); // once per parse; picks up device zone changes
+        int  staleRun = 0;
+        int  tooOld = 0, undated = 0;
+        boolean truncated = false;
+
+        XmlPullParser xpp = XmlHolder.FACTORY.newPullParser();
+        xpp.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, false);
+        xpp.setInput(is, null); // honour the feed's own encoding declaration (windows-1255)
+
+        String title = null, pubDate = null, link = null, description = null;
+        boolean inItem = false;
+        String currentTag = null;
+
+        int event = xpp.getEventType();
+        parsing:
+        while (event != XmlPullParser.END_DOCUMENT) {
+            switch (event) {
+                case XmlPullParser.START_TAG:
+                    currentTag = xpp.getName();
+                    if ("item".equals(currentTag)) {
+                        inItem = true;
+                        title = null; pubDate = null; link = null; description = null;
+                    }
+                    break;
+
+                case XmlPullParser.TEXT:
+                    if (inItem && currentTag != null) {
+                        String text = xpp.getText().trim();
+                        switch (currentTag) {
+                            case "title":       title       = text; break;
+                            case "pubDate":     pubDate     = text; break;
+                            case "link":        link        = text; break;
+                            case "description": description = text; break;
+                        }
+                    }
+                    break;
+
+                case XmlPullParser.END_TAG:
+                    if ("item".equals(xpp.getName()) && inItem) {
+                        inItem = false;
+                        long ts = (title != null) ? PubDateParser.parseEpochSeconds(pubDate)
+                                                  : PubDateParser.INVALID;
+                        if (ts == PubDateParser.INVALID) {
+                            undated++;
+                        } else if (ts >= cutoff) {
+                            staleRun = 0;
+                            NewsEntry entry = buildEntry(title, ts, tz, link, description);
+                            result.add(entry);
+                            if (listener != null) listener.onEntry(entry);
+                        } else {
+                            tooOld++;
+                            if (ts < staleBefore && ++staleRun >= STALE_RUN_LIMIT) {
+                                truncated = true;
+                                break parsing;
+                            }
+                        }
+                    }
+                    currentTag = null;
+                    break;
+            }
+            event = xpp.next();
+        }
+
+        FetchMetrics.add("feed.items.accepted", result.size());
+        FetchMetrics.add("feed.items.rejected.old", tooOld);
+        FetchMetrics.add("feed.items.rejected.undated", undated);
+        if (truncated) FetchMetrics.count("feed.parse.stoppedEarly");
+
+        result.sort((a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()));
+        return new Parsed(result, truncated);
+    }
+
+    private static NewsEntry buildEntry(String title, long timestamp, TimeZone tz,
+                                        String link, String description) {
+        String cleanTitle = HtmlText.stripTags(title, 0, title.length());
+        String cleanDesc  = (description != null)
+            ? HtmlText.stripTags(description, 0, description.length())
+            : null;
+        String timeStr    = PubDateParser.formatTime(timestamp, tz);
+
+        return new NewsEntry(cleanTitle, timeStr, link, cleanDesc, timestamp);
+    }
+}
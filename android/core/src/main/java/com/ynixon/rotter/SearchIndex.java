@@ -0,0 +1,344 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over headlines and article bodies, for search-as-you-type.
+ *
+ * Words are normalised for Hebrew: niqqud and cantillation marks are dropped, final letters
+ * fold to their regular form (ם → מ), geresh and quote marks inside a word are removed
+ * (צה"ל → צהל), and a word is also indexed without up to {@link #MAX_PREFIX} leading prefix
+ * letters (ו ה ב כ ל מ ש), so "ממשלה" finds "בממשלה" and "והממשלה". Query words match any
+ * indexed word they are a prefix of; all query words must match.
+ *
+ * Each word's postings are the ascending ids of the stories containing it, delta- and
+ * varint-coded into one byte array. Stories are only ever appended: a body arriving later
+ * re-adds its story under a new id and retires the old one, and stories older than the
+ * retention age are retired by {@link #update}. Retired ids are dropped from the postings
+ * once they outnumber the live ones.
+ *
+ * Thread-safe. Tokenising happens outside the lock, so queries wait only for the short
+ * posting appends; call {@link #update} and {@link #addBody} from a worker thread.
+ */
+public final class SearchIndex {
+
+    private static final int    MIN_WORD      = 2;   // shorter words aren't indexed
+    private static final int    MAX_WORD      = 32;  // longer ones are cut (URLs, junk)
+    private static final int    MAX_PREFIX    = 3;   // e.g. ו+כ+ש in "וכשהממשלה"
+    private static final int    MIN_STRIPPED  = 3;   // shortest word left after stripping
+    private static final String PREFIX_LETTERS = "\u05D5\u05D4\u05D1\u05DB\u05DC\u05DE\u05E9"; // והבכלמש
+    private static final int    MIN_COMPACT   = 64;  // retired ids tolerated before compacting
+
+    /** One word's story ids, ascending, as varint deltas. */
+    private static final class Postings {
+        byte[] data = new byte[4];
+        int    length;
+        int    last = -1;
+
+        void add(int doc) {
+            if (doc <= last) return; // same story, word repeated
+            int delta = doc - last;  // >= 1; the first id is stored as id + 1
+            last = doc;
+            if (length + 5 > data.length) data = Arrays.copyOf(data, data.length * 2);
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+        }
+
+        /** Sets the bit of every id in {@code out}. */
+        void collect(BitSet out) {
+            int doc = -1;
+            int i = 0;
+            while (i < length) {
+                int delta = 0, shift = 0;
+                byte b;
+                do {
+                    b = data[i++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                out.set(doc);
+            }
+        }
+    }
+
+    private final long maxAgeSeconds;
+
+    // Sorted so a query word's completions are one contiguous subMap
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final List<NewsEntry> docs = new ArrayList<>();  // by id; null once retired
+    private final BitSet live     = new BitSet();
+    private final BitSet withBody = new BitSet();
+    private int retired;
+
+    /** @param maxAgeMs stories older than this are dropped by {@link #update} */
+    public SearchIndex(long maxAgeMs) {
+        this.maxAgeSeconds = maxAgeMs / 1000;
+    }
+
+    // ── Indexing ─────────────────────────────────────────────────────────────
+
+    /**
+     * Indexes the headlines in {@code entries} that aren't indexed yet and retires stories
+     * older than the retention age as of {@code nowMs}.
+     */
+    public void update(List<NewsEntry> entries, long nowMs) {
+        FetchMetrics.enter("search.index");
+        long start = System.nanoTime();
+        try {
+            for (NewsEntry e : entries) {
+                String key = e.getKey();
+                synchronized (this) {
+                    if (docByKey.containsKey(key)) continue;
+                }
+                Set<String> terms = new LinkedHashSet<>();
+                addWords(e.getTitle(), terms);
+                synchronized (this) {
+                    if (!docByKey.containsKey(key)) addDoc(key, e, terms, false);
+                }
+            }
+            expire(nowMs / 1000 - maxAgeSeconds);
+        } finally {
+            FetchMetrics.exit("search.index");
+            FetchMetrics.timeSince("search.index", start);
+        }
+    }
+
+    /**
+     * Adds the body of the story at {@code link} to its headline; ignored if the story isn't
+     * indexed or already has its body.
+     */
+    public void addBody(String link, String body) {
+        if (link == null || link.isEmpty() || body == null || body.isEmpty()) return;
+        NewsEntry e;
+        synchronized (this) {
+            Integer doc = docByKey.get(link);
+            if (doc == null || withBody.get(doc)) return;
+            e = docs.get(doc);
+        }
+        FetchMetrics.enter("search.index");
+        long start = System.nanoTime();
+        try {
+            Set<String> terms = new LinkedHashSet<>();
+            addWords(e.getTitle(), terms);
+            addWords(body, terms);
+            synchronized (this) {
+                Integer doc = docByKey.get(link);
+                if (doc == null || withBody.get(doc)) return;
+                retire(doc);
+                addDoc(link, e, terms, true);
+            }
+        } finally {
+            FetchMetrics.exit("search.index");
+            FetchMetrics.timeSince("search.index", start);
+        }
+    }
+
+    private void addDoc(String key, NewsEntry e, Set<String> terms, boolean hasBody) {
+        int doc = docs.size();
+        docs.add(e);
+        docByKey.put(key, doc);
+        live.set(doc);
+        if (hasBody) withBody.set(doc);
+        for (String t : terms) {
+            Postings p = words.get(t);
+            if (p == null) {
+                p = new Postings();
+                words.put(t, p);
+            }
+            p.add(doc);
+        }
+    }
+
+    private synchronized void expire(long beforeSeconds) {
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            NewsEntry e = docs.get(doc);
+            if (e.getTimestamp() < beforeSeconds) {
+                docByKey.remove(e.getKey());
+                retire(doc);
+            }
+        }
+        if (retired >= MIN_COMPACT && retired > live.cardinality()) compact();
+    }
+
+    private void retire(int doc) {
+        live.clear(doc);
+        withBody.clear(doc);
+        docs.set(doc, null);
+        retired++;
+    }
+
+    /** Renumbers the live stories densely, keeping their order, and rebuilds the postings. */
+    private void compact() {
+        int[] remap = new int[docs.size()];
+        List<NewsEntry> kept = new ArrayList<>(docs.size() - retired);
+        BitSet keptBodies = new BitSet();
+        for (int doc = 0; doc < remap.length; doc++) {
+            if (!live.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = kept.size();
+            if (withBody.get(doc)) keptBodies.set(kept.size());
+            kept.add(docs.get(doc));
+        }
+
+        BitSet ids = new BitSet();
+        Iterator<Map.Entry<String, Postings>> it = words.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Postings> w = it.next();
+            ids.clear();
+            w.getValue().collect(ids);
+            Postings fresh = new Postings();
+            for (int doc = ids.nextSetBit(0); doc >= 0; doc = ids.nextSetBit(doc + 1)) {
+                if (remap[doc] >= 0) fresh.add(remap[doc]);
+            }
+            if (fresh.length == 0) it.remove();
+            else                   w.setValue(fresh);
+        }
+
+        docs.clear();
+        docs.addAll(kept);
+        live.clear();
+        live.set(0, kept.size());
+        withBody.clear();
+        withBody.or(keptBodies);
+        for (Map.Entry<String, Integer> k : docByKey.entrySet()) k.setValue(remap[k.getValue()]);
+        retired = 0;
+    }
+
+    // ── Searching ────────────────────────────────────────────────────────────
+
+    /**
+     * Stories matching every word of {@code query}, newest first, at most {@code limit};
+     * empty if the query has no words.
+     */
+    public List<NewsEntry> search(String query, int limit) {
+        long start = System.nanoTime();
+        List<String> terms = new ArrayList<>();
+        forEachWord(query, 1, terms::add);
+        if (terms.isEmpty()) return Collections.emptyList();
+
+        List<NewsEntry> found = new ArrayList<>();
+        synchronized (this) {
+            BitSet hits = null;
+            BitSet term = new BitSet();
+            for (String t : terms) {
+                term.clear();
+                // Every indexed word that starts with t: [t, t + U+FFFF)
+                for (Postings p : words.subMap(t, true, t + '\uFFFF', false).values()) {
+                    p.collect(term);
+                }
+                if (hits == null) {
+                    hits = (BitSet) term.clone();
+                    hits.and(live);
+                } else {
+                    hits.and(term);
+                }
+                if (hits.isEmpty()) break;
+            }
+            for (int doc = hits.nextSetBit(0); doc >= 0; doc = hits.nextSetBit(doc + 1)) {
+                found.add(docs.get(doc));
+            }
+        }
+        Collections.sort(found, (a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()));
+        List<NewsEntry> result = found.size() > limit
+                ? new ArrayList<>(found.subList(0, limit)) : found;
+        FetchMetrics.timeSince("search.query", start);
+        return result;
+    }
+
+    public synchronized int size()         { return live.cardinality(); }
+    public synchronized int getBodyCount() { return withBody.cardinality(); }
+    public synchronized int getWordCount() { return words.size(); }
+
+    /** Bytes held by the postings arrays (used, not allocated). */
+    public synchronized long getPostingsBytes() {
+        long n = 0;
+        for (Postings p : words.values()) n += p.length;
+        return n;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return size() + " stories (" + getBodyCount() + " with body), " + getWordCount()
+                + " words, postings " + getPostingsBytes() / 1024 + " KB";
+    }
+
+    // ── Hebrew normalisation ─────────────────────────────────────────────────
+
+    private interface WordSink {
+        void accept(String word);
+    }
+
+    /** Adds the normalised words of {@code text} and their prefix-stripped forms. */
+    private static void addWords(String text, Set<String> out) {
+        forEachWord(text, MIN_WORD, w -> {
+            out.add(w);
+            // Strip one, two, three leading prefix letters while enough word is left
+            for (int i = 0; i < MAX_PREFIX && w.length() - i - 1 >= MIN_STRIPPED
+                    && PREFIX_LETTERS.indexOf(w.charAt(i)) >= 0; i++) {
+                out.add(w.substring(i + 1));
+            }
+        });
+    }
+
+    /**
+     * Splits {@code text} into normalised words of at least {@code minLength} characters:
+     * Hebrew points dropped, final letters folded, other letters lower-cased.
+     */
+    static void forEachWord(CharSequence text, int minLength, WordSink sink) {
+        if (text == null) return;
+        StringBuilder word = new StringBuilder(MAX_WORD);
+        int n = text.length();
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (isMark(c)) continue;
+            if ((c == '"' || c == '\'' || c == '\u05F3' || c == '\u05F4' || c == '\u2019')
+                    && word.length() > 0) {
+                continue; // acronym or abbreviation mark inside a word
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (word.length() < MAX_WORD) word.append(fold(c));
+                continue;
+            }
+            if (word.length() >= minLength) sink.accept(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    /** Niqqud, cantillation and invisible formatting characters: skipped, not separators. */
+    private static boolean isMark(char c) {
+        if (c >= '\u0591' && c <= '\u05C7') {
+            // Maqaf, paseq, sof pasuq and nun hafukha are punctuation
+            return c != '\u05BE' && c != '\u05C0' && c != '\u05C3' && c != '\u05C6';
+        }
+        // Soft hyphen, LRM, RLM, ZWNJ, ZWJ
+        return c == '\u00AD' || c == '\u200E' || c == '\u200F' || c == '\u200C' || c == '\u200D';
+    }
+
+    private static char fold(char c) {
+        switch (c) {
+            case '\u05DA': return '\u05DB'; // ך → כ
+            case '\u05DD': return '\u05DE'; // ם → מ
+            case '\u05DF': return '\u05E0'; // ן → נ
+            case '\u05E3': return '\u05E4'; // ף → פ
+            case '\u05E5': return '\u05E6'; // ץ → צ
+            default:       return Character.toLowerCase(c);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ynixon.rotter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Which stories the user has had on screen, in a fixed byte budget: one Bloom filter per
+ * day, {@link #GENERATIONS} days kept, the oldest day's filter cleared and reused as the
+ * next one. Keys are {@link NewsEntry#getKey()}, the same identity {@link FeedMerger}
+ * uses. Lookups hash the key in place — no allocation — and touch {@link #HASHES} bits
+ * per day.
+ *
+ * <p>A false positive (about 1 in 1,500 at 500 stories a day) only means a story shows
+ * without its "new" badge. Thread-safe; {@link #load} and {@link #save} do disk I/O.
+ */
+public final class SeenSet {
+
+    private static final int  GENERATIONS    = 4;
+    private static final long GENERATION_MS  = TimeUnit.DAYS.toMillis(1);
+    private static final int  BITS_PER_GEN   = 1 << 14;    // 2 KB per day, 8 KB in all
+    private static final int  HASHES         = 4;
+    private static final int  WORDS          = BITS_PER_GEN / 64;
+    private static final int  MASK           = BITS_PER_GEN - 1;
+
+    private static final int MAGIC   = 0x52545353; // "RTSS"
+    private static final int VERSION = 1;
+
+    // Slot g % GENERATIONS holds day g (days since the epoch); -1 = never used
+    private final long[][] bits = new long[GENERATIONS][WORDS];
+    private final long[]   day  = new long[GENERATIONS];
+    private boolean dirty;
+
+    public SeenSet() {
+        Arrays.fill(day, -1L);
+    }
+
+    /**
+     * Whether {@code e} was marked seen in one of the {@link #GENERATIONS} days up to today
+     * ({@code nowMs}). A slot still holding an older day (not written to since) is skipped,
+     * so stories seen longer ago than the window are not remembered for ever.
+     */
+    public synchronized boolean contains(NewsEntry e, long nowMs) {
+        long today = nowMs / GENERATION_MS;
+        long h = hash(e);
+        for (int s = 0; s < GENERATIONS; s++) {
+            if (day[s] > today - GENERATIONS && day[s] <= today && test(bits[s], h)) return true;
+        }
+        return false;
+    }
+
+    /** Marks {@code e} seen today ({@code nowMs}), starting a new day's filter if needed. */
+    public synchronized void add(NewsEntry e, long nowMs) {
+        long today = nowMs / GENERATION_MS;
+        int  slot  = (int) (today % GENERATIONS);
+        if (day[slot] != today) {
+            // The slot's previous day has aged out of the window
+            Arrays.fill(bits[slot], 0L);
+            day[slot] = today;
+        }
+        long h = hash(e);
+        if (!test(bits[slot], h)) {
+            set(bits[slot], h);
+            dirty = true;
+        }
+    }
+
+    /** Adds everything in {@code other} (e.g. the copy loaded from disk) to this set. */
+    public synchronized void merge(SeenSet other) {
+        if (other == null || other == this) return;
+        synchronized (other) {
+            for (int s = 0; s < GENERATIONS; s++) {
+                if (other.day[s] < 0 || other.day[s] < day[s]) continue;
+                if (other.day[s] > day[s]) {
+                    System.arraycopy(other.bits[s], 0, bits[s], 0, WORDS);
+                    day[s] = other.day[s];
+                } else {
+                    for (int w = 0; w < WORDS; w++) bits[s][w] |= other.bits[s][w];
+                }
+            }
+        }
+    }
+
+    // ── Hashing ──────────────────────────────────────────────────────────────
+
+    private static long hash(NewsEntry e) {
+        String key = e.getKey();
+        // FNV-1a over the UTF-16 units, then a 64-bit finaliser to spread the low bits
+        long h = 0xcbf29ce484222325L;
+        if (key != null) {
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Double hashing: bit i = h1 + i * h2, from the two halves of one 64-bit hash
+    private static boolean test(long[] words, long h) {
+        int h1 = (int) h, h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & MASK;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static void set(long[] words, long h) {
+        int h1 = (int) h, h2 = (int) (h >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & MASK;
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // ── Persistence ──────────────────────────────────────────────────────────
+
+    /** Reads a saved set; null if there is none or it can't be read. */
+    public static SeenSet load(File file) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (in.readInt() != GENERATIONS || in.readInt() != BITS_PER_GEN) return null;
+            SeenSet set = new SeenSet();
+            for (int s = 0; s < GENERATIONS; s++) {
+                set.day[s] = in.readLong();
+                for (int w = 0; w < WORDS; w++) set.bits[s][w] = in.readLong();
+            }
+            return set;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the set via a temp file if anything was added since the last save. The bits
+     * are copied under the lock, so callers keep adding while the write runs.
+     */
+    public boolean save(File file) {
+        long[][] copy = new long[GENERATIONS][];
+        long[]   days;
+        synchronized (this) {
+            if (!dirty) return true;
+            for (int s = 0; s < GENERATIONS; s++) copy[s] = bits[s].clone();
+            days  = day.clone();
+            dirty = false;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(GENERATIONS);
+            out.writeInt(BITS_PER_GEN);
+            for (int s = 0; s < GENERATIONS; s++) {
+                out.writeLong(days[s]);
+                for (long w : copy[s]) out.writeLong(w);
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            synchronized (this) { dirty = true; }
+            return false;
+        }
+        return tmp.renameTo(file);
+    }
+}
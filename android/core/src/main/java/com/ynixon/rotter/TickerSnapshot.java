@@ -0,0 +1,39 @@
+package com.ynixon.rotter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The entries the ticker cycles through, newest first, as one immutable value. Each refresh
+ * publishes a new snapshot with the next {@link #version} (through an
+ * {@code AtomicReference}), so a reader on any thread works on a consistent list without
+ * locking, and a callback can tell whether the list it was started for is still current.
+ */
+public final class TickerSnapshot {
+
+    public static final TickerSnapshot EMPTY =
+            new TickerSnapshot(0, Collections.<NewsEntry>emptyList());
+
+    /** Increases by one per published snapshot. */
+    public final long version;
+    /** Unmodifiable, newest first. */
+    public final List<NewsEntry> entries;
+
+    private TickerSnapshot(long version, List<NewsEntry> entries) {
+        this.version = version;
+        this.entries = entries;
+    }
+
+    /** The snapshot that follows this one, holding a copy of {@code entries}. */
+    public TickerSnapshot next(List<NewsEntry> entries) {
+        return new TickerSnapshot(version + 1,
+                Collections.unmodifiableList(new ArrayList<>(entries)));
+    }
+
+    public int size() { return entries.size(); }
+
+    public boolean isEmpty() { return entries.isEmpty(); }
+
+    public NewsEntry get(int index) { return entries.get(index); }
+}
@@ -0,0 +1,51 @@
+package com.ynixon.rotter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class AppExecutorsTest {
+
+    @After
+    public void tearDown() {
+        AppExecutors.shutdown();
+    }
+
+    @Test
+    public void queuedIoWorkStillRunsAfterShutdown() throws InterruptedException {
+        AppExecutors executors = AppExecutors.get();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch saved   = new CountDownLatch(1);
+        assertTrue(executors.tryIo(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            saved.countDown();
+        }));
+
+        AppExecutors.shutdown();
+        release.countDown();
+
+        assertTrue(saved.await(2, TimeUnit.SECONDS));
+        assertFalse(executors.tryIo(() -> { }));
+    }
+
+    @Test
+    public void getAfterShutdownBuildsFreshPools() {
+        AppExecutors first = AppExecutors.get();
+        AppExecutors.shutdown();
+
+        AppExecutors second = AppExecutors.get();
+
+        assertNotSame(first, second);
+        assertTrue(second.tryIo(() -> { }));
+    }
+}
@@ -0,0 +1,106 @@
+package com.ynixon.rotter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArticleFetchCoordinatorTest {
+
+    private static final String URL = "http://rotter.invalid/article/1.shtml";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    // Loads wait here until the test runs them, so requests can overlap deterministically
+    private final List<Runnable> queued = new ArrayList<>();
+    private ArticleFetchCoordinator coordinator;
+
+    @Before
+    public void setUp() {
+        BodyCache cache = new BodyCache(tmp.getRoot(), 1 << 10, 1 << 20, 3_600_000L);
+        cache.put(URL, "body");
+        Executor io = queued::add;
+        coordinator = new ArticleFetchCoordinator(cache, io, Runnable::run);
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        for (Runnable r : tasks) r.run();
+    }
+
+    @Test
+    public void concurrentRequestsShareOneLoad() {
+        List<String> a = new ArrayList<>();
+        List<String> b = new ArrayList<>();
+        coordinator.request(URL, a::add);
+        coordinator.request(URL, b::add);
+
+        assertEquals(1, queued.size());
+        runQueued();
+
+        assertEquals(1, coordinator.getStartedCount());
+        assertEquals(1, coordinator.getCoalescedCount());
+        assertEquals(1, a.size());
+        assertEquals("body", a.get(0));
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void cancellingOneWaiterKeepsTheLoadForTheOthers() {
+        List<String> a = new ArrayList<>();
+        List<String> b = new ArrayList<>();
+        ArticleFetchCoordinator.Ticket first = coordinator.request(URL, a::add);
+        ArticleFetchCoordinator.Ticket second = coordinator.request(URL, b::add);
+
+        first.cancel();
+        runQueued();
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertTrue(a.isEmpty());
+        assertEquals(1, b.size());
+        assertEquals(0, coordinator.getAbortedCount());
+    }
+
+    @Test
+    public void cancellingEveryWaiterAbortsTheLoad() {
+        List<String> a = new ArrayList<>();
+        coordinator.request(URL, a::add).cancel();
+        runQueued();
+
+        assertTrue(a.isEmpty());
+        assertEquals(1, coordinator.getAbortedCount());
+    }
+
+    @Test
+    public void aRequestAfterCompletionStartsANewLoad() {
+        coordinator.request(URL, null);
+        runQueued();
+        coordinator.request(URL, null);
+
+        assertEquals(1, queued.size());
+        assertEquals(2, coordinator.getStartedCount());
+        assertEquals(0, coordinator.getCoalescedCount());
+    }
+
+    @Test
+    public void aRequestAfterAnAbortDoesNotJoinTheAbortedLoad() {
+        coordinator.request(URL, null).cancel();
+        List<String> late = new ArrayList<>();
+        coordinator.request(URL, late::add);
+        runQueued();
+
+        assertEquals(2, coordinator.getStartedCount());
+        assertEquals(1, late.size());
+    }
+}
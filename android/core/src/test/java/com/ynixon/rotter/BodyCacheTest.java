@@ -0,0 +1,133 @@
+package com.ynixon.rotter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BodyCacheTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private File dir;
+    private final Set<File> backdated = new HashSet<>();
+
+    @Before
+    public void setUp() {
+        dir = new File(tmp.getRoot(), "bodies");
+    }
+
+    /** Backdates the files written since the last call, so eviction order is explicit. */
+    private void backdateNewFiles(long ageMs) {
+        long now = System.currentTimeMillis();
+        for (File f : dir.listFiles()) {
+            if (backdated.add(f)) f.setLastModified(now - ageMs);
+        }
+    }
+
+    @Test
+    public void memoryEvictsTheLeastRecentlyUsed() {
+        BodyCache cache = new BodyCache(dir, 10, 1 << 20, HOUR_MS);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.getFromMemory("a");
+        cache.put("c", "cccc");
+
+        assertEquals("aaaa", cache.getFromMemory("a"));
+        assertNull(cache.getFromMemory("b"));
+        assertEquals("cccc", cache.getFromMemory("c"));
+        assertEquals(1, cache.getMemoryEvictions());
+        assertEquals(16, cache.getMemoryBytes());
+    }
+
+    @Test
+    public void diskAnswersWhatMemoryEvicted() {
+        BodyCache cache = new BodyCache(dir, 4, 1 << 20, HOUR_MS);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+
+        assertNull(cache.getFromMemory("a"));
+        assertEquals("aaaa", cache.get("a"));
+        assertEquals(1, cache.getDiskHits());
+        assertEquals("aaaa", cache.getFromMemory("a"));
+    }
+
+    @Test
+    public void probingMemoryIsNotALookup() {
+        BodyCache cache = new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS);
+        cache.put("a", "aaaa");
+
+        assertTrue(cache.containsInMemory("a"));
+        assertFalse(cache.containsInMemory("b"));
+        assertEquals(0, cache.getMemoryHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    public void expiredEntriesAreMisses() throws InterruptedException {
+        BodyCache cache = new BodyCache(dir, 1 << 10, 1 << 20, 100);
+        cache.put("a", "aaaa");
+        Thread.sleep(150);
+
+        assertNull(cache.getFromMemory("a"));
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getDiskBytes());
+    }
+
+    @Test
+    public void expiredFilesAreDeleted() {
+        new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS).put("a", "aaaa");
+        backdateNewFiles(2 * HOUR_MS);
+
+        BodyCache restarted = new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS);
+
+        assertNull(restarted.get("a"));
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void diskEvictsTheOldestWrittenPastTheByteCap() {
+        BodyCache cache = new BodyCache(dir, 1 << 10, 10, HOUR_MS);
+        cache.put("a", "aaaa");
+        backdateNewFiles(3_000);
+        cache.put("b", "bbbb");
+        backdateNewFiles(2_000);
+        cache.put("c", "cccc");
+
+        assertEquals(1, cache.getDiskEvictions());
+        assertEquals(8, cache.getDiskBytes());
+        BodyCache restarted = new BodyCache(dir, 1 << 10, 10, HOUR_MS);
+        assertNull(restarted.get("a"));
+        assertEquals("bbbb", restarted.get("b"));
+        assertEquals("cccc", restarted.get("c"));
+    }
+
+    @Test
+    public void reportsDiskUsageBeforeTheFirstWrite() {
+        new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS).put("a", "aaaa");
+
+        assertEquals(4, new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS).getDiskBytes());
+    }
+
+    @Test
+    public void emptyBodiesAreNotStored() {
+        BodyCache cache = new BodyCache(dir, 1 << 10, 1 << 20, HOUR_MS);
+        cache.put("a", "");
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getMisses());
+    }
+}
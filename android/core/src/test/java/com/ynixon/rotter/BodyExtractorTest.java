@@ -0,0 +1,175 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BodyExtractorTest {
+
+    // "הממשלה החליטה " five times: 60 Hebrew letters
+    private static final String PROSE =
+            repeat("\u05D4\u05DE\u05DE\u05E9\u05DC\u05D4 \u05D4\u05D7\u05DC\u05D9\u05D8\u05D4 ", 5);
+    // Navigation row: Hebrew link labels ("ראשי חדשות") with many links
+    private static final String NAV =
+            repeat("<a href=\"/x\">\u05E8\u05D0\u05E9\u05D9 \u05D7\u05D3\u05E9\u05D5\u05EA</a> ", 8);
+
+    private static String repeat(String s, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) sb.append(s);
+        return sb.toString();
+    }
+
+    private static BodyExtractor.Scanner scan(String html) {
+        BodyExtractor.Scanner scanner = new BodyExtractor.Scanner();
+        scanner.feed(html, html.length(), true);
+        return scanner;
+    }
+
+    /** Length of the document at which bodyComplete first said yes, or -1. */
+    private static int streamUntilComplete(String html, int chunk) {
+        StringBuilder doc = new StringBuilder();
+        BodyExtractor.Scanner scanner = new BodyExtractor.Scanner();
+        for (int i = 0; i < html.length(); i += chunk) {
+            doc.append(html, i, Math.min(html.length(), i + chunk));
+            scanner.feed(doc, doc.length(), false);
+            if (scanner.bodyComplete(doc)) return doc.length();
+        }
+        return -1;
+    }
+
+    @Test
+    public void markerContainerWins() {
+        String html = "<html><body><p>" + NAV + "</p>"
+                + "<div id=\"scoopBody\"><b>Breaking</b> story text that is long enough</div>"
+                + "<p>" + PROSE + "</p></body></html>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertEquals("Breaking story text that is long enough", scanner.result(html));
+        assertEquals("marker.id.scoopBody", scanner.strategy());
+    }
+
+    @Test
+    public void markersAreTriedMostSpecificFirst() {
+        String html = "<td class=\"prow1\">generic row text, also long enough</td>"
+                + "<div class=\"newsbody\">the news body itself, long enough</div>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertEquals("the news body itself, long enough", scanner.result(html));
+        assertEquals("marker.class.newsbody", scanner.strategy());
+    }
+
+    @Test
+    public void shortMarkerTextFallsBackToHebrewDensity() {
+        String html = "<div id=\"scoopBody\">tiny</div><p>" + NAV + "</p><p>" + PROSE + "</p>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertEquals(PROSE.trim(), scanner.result(html));
+        assertEquals(BodyExtractor.STRATEGY_DENSITY, scanner.strategy());
+    }
+
+    @Test
+    public void proseBeatsLinkHeavyNavigation() {
+        String html = "<table><tr><td>" + NAV + "</td><td>" + PROSE + "</td></tr></table>";
+        String body = BodyExtractor.extract(html);
+
+        assertEquals(PROSE.trim(), body);
+    }
+
+    @Test
+    public void longestParagraphWhenThereIsNoHebrew() {
+        String html = "<p>short one</p><p>the longest paragraph on this page</p><p>mid length text</p>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertEquals("the longest paragraph on this page", scanner.result(html));
+        assertEquals(BodyExtractor.STRATEGY_PARAGRAPH, scanner.strategy());
+    }
+
+    @Test
+    public void nothingUsable() {
+        String html = "<html><body><p>hi</p></body></html>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertNull(scanner.result(html));
+        assertEquals(BodyExtractor.STRATEGY_NONE, scanner.strategy());
+    }
+
+    @Test
+    public void markersInsideScriptsAreIgnored() {
+        String html = "<script>var t = '<div id=\"scoopBody\">not the body, just a string</div>';"
+                + "</script><p>" + PROSE + "</p>";
+        BodyExtractor.Scanner scanner = scan(html);
+
+        assertEquals(0, scanner.foundMarkers());
+        assertEquals(PROSE.trim(), scanner.result(html));
+    }
+
+    @Test
+    public void streamingInChunksMatchesTheWholePage() {
+        String html = "<html><head><style>p { color: red }</style></head><body><p>" + NAV
+                + "</p><div class=\"post_body\">chunked story text, long enough to count</div>"
+                + "<script>document.write('<p>')</script></body></html>";
+        StringBuilder doc = new StringBuilder();
+        BodyExtractor.Scanner scanner = new BodyExtractor.Scanner();
+        boolean complete = false;
+        for (int i = 0; i < html.length(); i += 7) {
+            doc.append(html, i, Math.min(html.length(), i + 7));
+            scanner.feed(doc, doc.length(), false);
+            complete |= scanner.bodyComplete(doc);
+        }
+        scanner.feed(doc, doc.length(), true);
+
+        assertTrue(complete);
+        assertEquals(BodyExtractor.extract(html), scanner.result(doc));
+        assertEquals("chunked story text, long enough to count", scanner.result(doc));
+    }
+
+    @Test
+    public void bodyIsNotCompleteUntilTheContainerCloses() {
+        String head = "<div id=\"scoopBody\">story text that is long enough";
+        BodyExtractor.Scanner scanner = new BodyExtractor.Scanner();
+        scanner.feed(head, head.length(), false);
+
+        assertFalse(scanner.bodyComplete(head));
+
+        String whole = head + "</div>";
+        scanner.feed(whole, whole.length(), false);
+        assertTrue(scanner.bodyComplete(whole));
+    }
+
+    @Test
+    public void closingTagSplitAcrossChunksIsFound() {
+        String body = "<div class=\"newsbody\">story text that is long enough</div>";
+        String html = body + "<p>" + NAV + "</p>";
+
+        assertEquals(body.length(), streamUntilComplete(html, 1));
+    }
+
+    @Test
+    public void closingTagsInsideScriptsDoNotEndTheBody() {
+        String body = "<div class=\"newsbody\">story text that is long enough"
+                + "<script>document.write('</div>')</script> and more</div>";
+        String html = body + "<p>" + NAV + "</p>";
+
+        assertEquals(body.length(), streamUntilComplete(html, 1));
+        assertEquals("story text that is long enough and more", BodyExtractor.extract(html));
+    }
+
+    @Test
+    public void aTooShortMarkerWaitsForTheNextOne() {
+        String head = "<div id=\"scoopBody\">tiny</div><p>filler</p>";
+        String body = "<div class=\"newsbody\">story text that is long enough</div>";
+        String html = head + body + "<p>" + NAV + "</p>";
+
+        assertEquals(head.length() + body.length(), streamUntilComplete(html, 1));
+    }
+
+    @Test
+    public void anUnclosedBodyNeverCompletes() {
+        String html = "<div class=\"newsbody\">story text that is long enough, cut off";
+
+        assertEquals(-1, streamUntilComplete(html, 5));
+    }
+}
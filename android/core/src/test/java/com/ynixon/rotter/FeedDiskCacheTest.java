@@ -0,0 +1,103 @@
+package com.ynixon.rotter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FeedDiskCacheTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private static FeedDiskCache.Snapshot snapshot() {
+        List<NewsEntry> entries = Arrays.asList(
+                new NewsEntry("שלום", "12:00", "http://x/1", "desc", 2_000),
+                new NewsEntry("no link", "11:00", null, null, 1_000));
+        return new FeedDiskCache.Snapshot(entries, 16, "\"etag\"", null, 123_456L);
+    }
+
+    @Test
+    public void roundTripsEverything() throws IOException {
+        File file = tmp.newFile("feed.bin");
+        assertTrue(FeedDiskCache.save(file, snapshot()));
+
+        FeedDiskCache.Snapshot s = FeedDiskCache.load(file);
+
+        assertEquals(16, s.hoursBack);
+        assertEquals("\"etag\"", s.etag);
+        assertNull(s.lastModified);
+        assertEquals(123_456L, s.savedAt);
+        assertEquals(2, s.entries.size());
+        NewsEntry first = s.entries.get(0);
+        assertEquals("שלום", first.getTitle());
+        assertEquals("12:00", first.getDate());
+        assertEquals("http://x/1", first.getLink());
+        assertEquals("desc", first.getDescription());
+        assertEquals(2_000, first.getTimestamp());
+        NewsEntry second = s.entries.get(1);
+        assertNull(second.getLink());
+        assertNull(second.getDescription());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void missingFileLoadsAsNull() {
+        assertNull(FeedDiskCache.load(new File(tmp.getRoot(), "absent.bin")));
+    }
+
+    @Test
+    public void truncatedFileLoadsAsNull() throws IOException {
+        File file = tmp.newFile("feed.bin");
+        FeedDiskCache.save(file, snapshot());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        assertNull(FeedDiskCache.load(file));
+    }
+
+    @Test
+    public void otherVersionLoadsAsNull() throws IOException {
+        File file = tmp.newFile("feed.bin");
+        FeedDiskCache.save(file, snapshot());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4); // after the magic
+            raf.writeInt(99);
+        }
+
+        assertNull(FeedDiskCache.load(file));
+    }
+
+    @Test
+    public void garbageLoadsAsNull() throws IOException {
+        File file = tmp.newFile("feed.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeBytes("not a snapshot at all");
+        }
+
+        assertNull(FeedDiskCache.load(file));
+    }
+
+    @Test
+    public void oversizedStringLengthLoadsAsNull() throws IOException {
+        File file = tmp.newFile("feed.bin");
+        FeedDiskCache.save(file, snapshot());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4 + 4 + 8 + 4); // magic, version, savedAt, hoursBack: the etag length
+            raf.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertNull(FeedDiskCache.load(file));
+    }
+}
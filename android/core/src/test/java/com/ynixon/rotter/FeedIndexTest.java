@@ -0,0 +1,66 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FeedIndexTest {
+
+    private static final long NOW  = 1_700_000_000L;
+    private static final long HOUR = 3600;
+
+    private static NewsEntry entry(String link, long ts) {
+        return new NewsEntry("title " + link, "", link, "", ts);
+    }
+
+    private final NewsEntry recent = entry("recent", NOW - 10 * 60);
+    private final NewsEntry middle = entry("middle", NOW - 90 * 60);
+    private final NewsEntry old    = entry("old",    NOW - 5 * HOUR);
+
+    @Test
+    public void windowKeepsTheLastHoursNewestFirst() {
+        FeedIndex index = new FeedIndex(Arrays.asList(recent, middle, old), 8);
+
+        assertEquals(Arrays.asList(recent), index.window(1, NOW));
+        assertEquals(Arrays.asList(recent, middle), index.window(2, NOW));
+        assertEquals(Arrays.asList(recent, middle, old), index.window(8, NOW));
+        assertEquals(Collections.<NewsEntry>emptyList(), index.window(1, NOW + 2 * HOUR));
+    }
+
+    @Test
+    public void sortsEntriesThatArriveOutOfOrder() {
+        FeedIndex index = new FeedIndex(Arrays.asList(old, recent, middle), 8);
+
+        assertEquals(Arrays.asList(recent, middle, old), index.all());
+    }
+
+    @Test
+    public void cutoffIsInclusive() {
+        FeedIndex index = new FeedIndex(Arrays.asList(recent, middle), 8);
+
+        assertEquals(Arrays.asList(recent, middle), index.since(middle.getTimestamp()));
+        assertEquals(Arrays.asList(recent), index.since(middle.getTimestamp() + 1));
+    }
+
+    @Test
+    public void rangeIsHalfOpen() {
+        FeedIndex index = new FeedIndex(Arrays.asList(recent, middle, old), 8);
+
+        List<NewsEntry> r = index.range(old.getTimestamp(), recent.getTimestamp());
+        assertEquals(Arrays.asList(middle, old), r);
+        assertEquals(Collections.<NewsEntry>emptyList(), index.range(NOW, NOW - HOUR));
+    }
+
+    @Test
+    public void emptyIndex() {
+        FeedIndex index = new FeedIndex(Collections.<NewsEntry>emptyList(), 4);
+
+        assertEquals(0, index.size());
+        assertEquals(4, index.getHours());
+        assertEquals(Collections.<NewsEntry>emptyList(), index.window(4, NOW));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FeedMergerTest {
+
+    private static NewsEntry entry(String link, long ts) {
+        return new NewsEntry("title " + link, "", link, "", ts);
+    }
+
+    @Test
+    public void additionsGoToTheHeadAndTheIndexFollowsTheCurrentEntry() {
+        NewsEntry a = entry("a", 100), b = entry("b", 200), c = entry("c", 300);
+        List<NewsEntry> current = new ArrayList<>(Arrays.asList(b, a));
+
+        FeedMerger.Result r = FeedMerger.merge(current,
+                Arrays.asList(c, entry("b", 200), entry("a", 100)), 1);
+
+        assertEquals(Arrays.asList(c, b, a), current);
+        assertEquals(Arrays.asList(c), r.added);
+        assertEquals(0, r.removed);
+        assertEquals(2, r.index);
+        assertTrue(r.keptCurrent);
+    }
+
+    @Test
+    public void existingEntriesKeepTheirInstances() {
+        NewsEntry a = entry("a", 100);
+        List<NewsEntry> current = new ArrayList<>(Arrays.asList(a));
+
+        FeedMerger.merge(current, Arrays.asList(entry("a", 100)), 0);
+
+        assertSame(a, current.get(0));
+    }
+
+    @Test
+    public void removedCurrentEntryYieldsToItsSuccessor() {
+        NewsEntry a = entry("a", 100), b = entry("b", 200), c = entry("c", 300), d = entry("d", 400);
+        List<NewsEntry> current = new ArrayList<>(Arrays.asList(c, b, a));
+
+        FeedMerger.Result r = FeedMerger.merge(current, Arrays.asList(d, c, a), 1);
+
+        assertEquals(Arrays.asList(d, c, a), current);
+        assertEquals(1, r.removed);
+        assertEquals(2, r.index);
+        assertSame(a, current.get(r.index));
+        assertFalse(r.keptCurrent);
+    }
+
+    @Test
+    public void olderAdditionIsInsertedByTimestamp() {
+        NewsEntry a = entry("a", 100), b = entry("b", 200), c = entry("c", 300);
+        List<NewsEntry> current = new ArrayList<>(Arrays.asList(c, a));
+
+        FeedMerger.Result r = FeedMerger.merge(current, Arrays.asList(c, b, a), 0);
+
+        assertEquals(Arrays.asList(c, b, a), current);
+        assertEquals(0, r.index);
+    }
+
+    @Test
+    public void insertionBeforeTheCurrentEntryShiftsTheIndex() {
+        NewsEntry a = entry("a", 100), b = entry("b", 200), c = entry("c", 300);
+        List<NewsEntry> current = new ArrayList<>(Arrays.asList(c, a));
+
+        FeedMerger.Result r = FeedMerger.merge(current, Arrays.asList(c, b, a), 1);
+
+        assertSame(a, current.get(r.index));
+    }
+
+    @Test
+    public void duplicatesInTheLoadedFeedAreAddedOnce() {
+        List<NewsEntry> current = new ArrayList<>();
+
+        FeedMerger.Result r = FeedMerger.merge(current,
+                Arrays.asList(entry("b", 200), entry("a", 100), entry("b", 200)), 0);
+
+        assertEquals(2, current.size());
+        assertEquals(2, r.added.size());
+        assertEquals(0, r.index);
+    }
+}
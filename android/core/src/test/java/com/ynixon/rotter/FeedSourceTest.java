@@ -0,0 +1,190 @@
+package com.ynixon.rotter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class FeedSourceTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+    private volatile boolean validators = true;
+    private volatile String  lastIfNoneMatch;
+    private volatile String  feed;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger cutOff   = new AtomicInteger(); // responses to break off
+    private final long now = System.currentTimeMillis();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/feed.xml", this::serveFeed);
+        server.start();
+        feed = feed(item("recent", 1), item("older", 3));
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private String feedUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/feed.xml";
+    }
+
+    private void serveFeed(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        lastIfNoneMatch = ex.getRequestHeaders().getFirst("If-None-Match");
+        if (validators) {
+            ex.getResponseHeaders().set("ETag", ETAG);
+            if (ETAG.equals(lastIfNoneMatch)) {
+                ex.sendResponseHeaders(304, -1);
+                ex.close();
+                return;
+            }
+        }
+        String xml = feed;
+        // Breaks off inside the second <item> tag: the parse fails and the fetch is retried
+        if (cutOff.getAndDecrement() > 0) xml = xml.substring(0, xml.indexOf("</item>") + 11);
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String feed(String... items) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss><channel>");
+        for (String item : items) sb.append(item);
+        return sb.append("</channel></rss>").toString();
+    }
+
+    private String item(String link, double hoursAgo) {
+        SimpleDateFormat f = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US);
+        f.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String date = f.format(new Date(now - (long) (hoursAgo * 3_600_000L)));
+        return "<item><title>" + link + "</title><link>http://x/" + link + "</link>"
+                + "<pubDate>" + date + "</pubDate></item>";
+    }
+
+    private static List<String> links(List<NewsEntry> entries) {
+        List<String> links = new ArrayList<>();
+        for (NewsEntry e : entries) links.add(e.getLink());
+        return links;
+    }
+
+    @Test
+    public void replaysTheRetainedEntriesOn304() {
+        FeedSource source = new FeedSource(feedUrl());
+        List<NewsEntry> first = source.fetch(4, null, null);
+        assertNotNull(first);
+        assertNull(lastIfNoneMatch);
+
+        List<NewsEntry> delivered = new ArrayList<>();
+        List<NewsEntry> second = source.fetch(4, delivered::add, null);
+
+        assertEquals(ETAG, lastIfNoneMatch);
+        assertEquals(first, second);
+        assertEquals(first, delivered);
+        assertEquals(1, source.getFullFetchCount());
+        assertEquals(1, source.getNotModifiedCount());
+    }
+
+    @Test
+    public void replaysOnlyTheRequestedHours() {
+        FeedSource source = new FeedSource(feedUrl());
+        assertEquals(2, source.fetch(4, null, null).size());
+
+        List<NewsEntry> replayed = source.fetch(2, null, null);
+
+        assertEquals(1, source.getNotModifiedCount());
+        assertEquals(1, replayed.size());
+        assertEquals("http://x/recent", replayed.get(0).getLink());
+    }
+
+    @Test
+    public void withoutValidatorsEveryPollDownloads() {
+        validators = false;
+        FeedSource source = new FeedSource(feedUrl());
+        source.fetch(4, null, null);
+        source.fetch(4, null, null);
+
+        assertNull(lastIfNoneMatch);
+        assertEquals(2, requests.get());
+        assertEquals(2, source.getFullFetchCount());
+        assertEquals(0, source.getNotModifiedCount());
+    }
+
+    @Test
+    public void parsesOnlyTheRequestedHoursWhenTheRestIsRetained() {
+        validators = false;
+        feed = feed(item("recent", 1), item("ten", 10), item("eleven", 11), item("twelve", 12),
+                item("thirteen", 13), item("fourteen", 14));
+        FeedSource source = new FeedSource(feedUrl());
+        source.fetch(4, null, null);
+        assertEquals(6, source.getIndex().size());
+
+        // Upstream gains a story and drops an old one; only the first 4 hours are parsed again
+        feed = feed(item("fresh", 0.5), item("recent", 1), item("eleven", 11),
+                item("twelve", 12), item("thirteen", 13), item("fourteen", 14), item("fifteen", 15));
+        long stoppedEarly = FetchMetrics.getCount("feed.parse.stoppedEarly");
+        List<NewsEntry> result = source.fetch(4, null, null);
+
+        assertEquals(stoppedEarly + 1, FetchMetrics.getCount("feed.parse.stoppedEarly"));
+        assertEquals(Arrays.asList("http://x/fresh", "http://x/recent"), links(result));
+        assertEquals(Arrays.asList("http://x/fresh", "http://x/recent", "http://x/ten",
+                "http://x/eleven", "http://x/twelve", "http://x/thirteen", "http://x/fourteen"),
+                links(source.getIndex().all()));
+        assertEquals(RssFetcher.WINDOW_HOURS, source.getIndex().getHours());
+    }
+
+    @Test
+    public void restoredEntriesAreNotCarriedOver() {
+        validators = false;
+        FeedSource source = new FeedSource(feedUrl());
+        NewsEntry saved = new NewsEntry("saved", "", "http://x/saved", "",
+                now / 1000L - 10 * 3600);
+        source.restore(null, null, new FeedIndex(Arrays.asList(saved), RssFetcher.WINDOW_HOURS));
+
+        source.fetch(4, null, null);
+
+        assertEquals(Arrays.asList("http://x/recent", "http://x/older"),
+                links(source.getIndex().all()));
+    }
+
+    @Test
+    public void aRetryDoesNotDeliverStreamedEntriesAgain() {
+        validators = false;
+        cutOff.set(1);
+        FeedSource source = new FeedSource(feedUrl());
+        List<NewsEntry> delivered = new ArrayList<>();
+
+        List<NewsEntry> result = source.fetch(4, delivered::add, null);
+
+        assertEquals(2, requests.get());
+        assertEquals(Arrays.asList("http://x/recent", "http://x/older"), links(result));
+        assertEquals(links(result), links(delivered));
+    }
+}
@@ -0,0 +1,154 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HostGuardTest {
+
+    private static final AtomicInteger hosts = new AtomicInteger();
+
+    private static final HostGuard.Timeouts TIMEOUTS = new HostGuard.Timeouts(1_500, 2_500, 20_000);
+
+    /** A budget too small for any retry, so each call is exactly one attempt. */
+    private static final HostGuard.Timeouts SINGLE_ATTEMPT = new HostGuard.Timeouts(100, 100, 500);
+
+    private static final HostGuard.Attempt<String> ECHO =
+            (connectMs, readMs) -> connectMs + "/" + readMs;
+    private static final HostGuard.Attempt<String> DOWN = (connectMs, readMs) -> {
+        throw new IOException("down");
+    };
+
+    /** Guards are shared per host for the whole JVM; every test gets its own. */
+    private static HostGuard guard() {
+        return HostGuard.forHost("guard-test-" + hosts.incrementAndGet() + ".invalid");
+    }
+
+    @Test
+    public void passesTheCallersTimeoutsToTheAttempt() throws IOException {
+        String result = guard().call(TIMEOUTS, null, ECHO);
+
+        assertEquals("1500/2500", result);
+    }
+
+    @Test
+    public void aHostsOwnTimeoutsWin() throws IOException {
+        HostGuard g = guard();
+        g.setTimeouts(new HostGuard.Timeouts(300, 400, 5_000));
+
+        assertEquals("300/400", g.call(TIMEOUTS, null, ECHO));
+
+        g.setTimeouts(null);
+        assertEquals("1500/2500", g.call(TIMEOUTS, null, ECHO));
+    }
+
+    @Test
+    public void retriesHostFailuresWithBackoff() throws IOException {
+        HostGuard g = guard();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = g.call(TIMEOUTS, null, (connectMs, readMs) -> {
+            if (attempts.incrementAndGet() < HostGuard.MAX_ATTEMPTS) {
+                throw new HostGuard.StatusException(503);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(HostGuard.MAX_ATTEMPTS, attempts.get());
+        assertEquals(HostGuard.MAX_ATTEMPTS - 1, g.getRetryCount());
+        assertEquals(HostGuard.State.CLOSED, g.getState());
+        assertEquals(0, g.getConsecutiveFailures());
+    }
+
+    @Test
+    public void clientErrorsAreNotRetriedOrCounted() {
+        HostGuard g = guard();
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            g.call(TIMEOUTS, null, (connectMs, readMs) -> {
+                attempts.incrementAndGet();
+                throw new HostGuard.StatusException(404);
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals(404, ((HostGuard.StatusException) e).code);
+        }
+        assertEquals(1, attempts.get());
+        assertEquals(0, g.getConsecutiveFailures());
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailuresAndFailsFast() {
+        HostGuard g = guard();
+        for (int i = 0; i < HostGuard.FAILURE_THRESHOLD; i++) {
+            assertEquals(HostGuard.State.CLOSED, g.getState());
+            try {
+                g.call(SINGLE_ATTEMPT, null, DOWN);
+                fail();
+            } catch (IOException expected) {
+                // counted
+            }
+        }
+        assertEquals(HostGuard.State.OPEN, g.getState());
+        assertEquals(1, g.getTripCount());
+        assertTrue(g.getRetryInMs() > 0);
+
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            g.call(SINGLE_ATTEMPT, null, (connectMs, readMs) -> attempts.incrementAndGet());
+            fail();
+        } catch (HostGuard.OpenException expected) {
+            // no request made
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+        assertEquals(0, attempts.get());
+        assertEquals(1, g.getShortCircuitCount());
+    }
+
+    @Test
+    public void successResetsTheFailureCount() throws IOException {
+        HostGuard g = guard();
+        for (int i = 0; i < HostGuard.FAILURE_THRESHOLD - 1; i++) {
+            try {
+                g.call(SINGLE_ATTEMPT, null, DOWN);
+            } catch (IOException expected) {
+                // counted
+            }
+        }
+        g.call(SINGLE_ATTEMPT, null, (connectMs, readMs) -> "ok");
+        try {
+            g.call(SINGLE_ATTEMPT, null, DOWN);
+        } catch (IOException expected) {
+            // counted
+        }
+
+        assertEquals(1, g.getConsecutiveFailures());
+        assertEquals(HostGuard.State.CLOSED, g.getState());
+    }
+
+    @Test
+    public void abortStopsBeforeTheFirstAttempt() {
+        HostGuard g = guard();
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            g.call(TIMEOUTS, () -> true, (connectMs, readMs) -> attempts.incrementAndGet());
+            fail();
+        } catch (InterruptedIOException expected) {
+            // caller cancelled
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+        assertEquals(0, attempts.get());
+        assertEquals(0, g.getConsecutiveFailures());
+    }
+}
@@ -0,0 +1,142 @@
+package com.ynixon.rotter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpTransportTest {
+
+    private static final byte[] BODY = repeat("<p>rotter</p>\n", 200);
+
+    private HttpServer server;
+    private volatile String acceptEncoding;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/plain", ex -> send(ex, null, BODY));
+        server.createContext("/gzip", ex -> send(ex, "gzip", gzip(BODY)));
+        server.createContext("/deflate", ex -> send(ex, "deflate", deflate(BODY)));
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void send(HttpExchange ex, String encoding, byte[] body) throws IOException {
+        acceptEncoding = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        if (encoding != null) ex.getResponseHeaders().set("Content-Encoding", encoding);
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) sb.append(s);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        for (int n; (n = in.read(buf)) != -1; ) bytes.write(buf, 0, n);
+        return bytes.toByteArray();
+    }
+
+    private HttpTransport.Response get(String path, long maxBytes) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        HttpURLConnection conn = HttpTransport.open(url, 2_000, 2_000);
+        return HttpTransport.execute(conn, maxBytes);
+    }
+
+    @Test
+    public void asksForCompression() throws IOException {
+        try (HttpTransport.Response res = get("/plain", Long.MAX_VALUE)) {
+            assertEquals(200, res.code);
+        }
+        assertEquals("gzip, deflate", acceptEncoding);
+    }
+
+    @Test
+    public void decodesGzip() throws IOException {
+        try (HttpTransport.Response res = get("/gzip", Long.MAX_VALUE)) {
+            assertArrayEquals(BODY, readAll(res.body()));
+            assertEquals(gzip(BODY).length, res.getWireBytes());
+            assertEquals(BODY.length, res.getDecodedBytes());
+        }
+    }
+
+    @Test
+    public void decodesDeflate() throws IOException {
+        try (HttpTransport.Response res = get("/deflate", Long.MAX_VALUE)) {
+            assertArrayEquals(BODY, readAll(res.body()));
+            assertTrue(res.getWireBytes() < res.getDecodedBytes());
+        }
+    }
+
+    @Test
+    public void passesAnUnencodedBodyThrough() throws IOException {
+        try (HttpTransport.Response res = get("/plain", Long.MAX_VALUE)) {
+            assertArrayEquals(BODY, readAll(res.body()));
+            assertEquals(BODY.length, res.getWireBytes());
+        }
+    }
+
+    @Test
+    public void failsPastTheDecodedSizeCap() throws IOException {
+        // The cap applies to what the body decodes to, not to the much smaller gzip on the wire
+        try (HttpTransport.Response res = get("/gzip", BODY.length - 1)) {
+            readAll(res.body());
+            fail("read past the cap");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("larger than"));
+        }
+    }
+
+    @Test
+    public void aBodyExactlyAtTheCapIsAccepted() throws IOException {
+        try (HttpTransport.Response res = get("/plain", BODY.length)) {
+            assertEquals(BODY.length, readAll(res.body()).length);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class PubDateParserTest {
+
+    // 2023-01-01T10:00:00Z
+    private static final long JAN_1_10Z = 1672567200L;
+
+    private static long parse(String s) {
+        return PubDateParser.parseEpochSeconds(s);
+    }
+
+    @Test
+    public void parsesRfc822() {
+        assertEquals(JAN_1_10Z, parse("Sun, 01 Jan 2023 12:00:00 +0200"));
+    }
+
+    @Test
+    public void acceptsOneDigitDaysAndOptionalParts() {
+        assertEquals(JAN_1_10Z, parse("Sun, 1 Jan 2023 12:00:00 +0200"));
+        assertEquals(JAN_1_10Z, parse("1 Jan 2023 10:00 GMT"));
+        assertEquals(JAN_1_10Z, parse("1 jan 23 10:00"));
+    }
+
+    @Test
+    public void readsNumericAndNamedZones() {
+        assertEquals(JAN_1_10Z, parse("1 Jan 2023 05:00:00 -05:00"));
+        assertEquals(JAN_1_10Z, parse("1 Jan 2023 05:00:00 EST"));
+        assertEquals(JAN_1_10Z, parse("1 Jan 2023 10:00:00 Z"));
+        // Israel Standard Time, not India or Irish time
+        assertEquals(JAN_1_10Z, parse("1 Jan 2023 12:00:00 IST"));
+    }
+
+    @Test
+    public void checksTheDayAgainstTheMonth() {
+        assertEquals(PubDateParser.INVALID, parse("31 Feb 2023 10:00 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("29 Feb 2023 10:00 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("31 Apr 2023 10:00 GMT"));
+        assertEquals(1709200800L, parse("29 Feb 2024 10:00 GMT"));
+        assertEquals(1704067199L, parse("31 Dec 2023 23:59:59 GMT"));
+    }
+
+    @Test
+    public void rejectsMalformedValues() {
+        assertEquals(PubDateParser.INVALID, parse(null));
+        assertEquals(PubDateParser.INVALID, parse(""));
+        assertEquals(PubDateParser.INVALID, parse("yesterday"));
+        assertEquals(PubDateParser.INVALID, parse("0 Jan 2023 10:00 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("1 Foo 2023 10:00 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("1 Jan 2023 24:00 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("1 Jan 2023 10:60 GMT"));
+        assertEquals(PubDateParser.INVALID, parse("1 Jan 2023 10:00 XYZ"));
+    }
+
+    @Test
+    public void formatsLocalTime() {
+        assertEquals("10:00", PubDateParser.formatTime(JAN_1_10Z, TimeZone.getTimeZone("GMT")));
+        assertEquals("12:00", PubDateParser.formatTime(JAN_1_10Z, TimeZone.getTimeZone("GMT+02:00")));
+        assertEquals("05:00", PubDateParser.formatTime(JAN_1_10Z, TimeZone.getTimeZone("GMT-05:00")));
+    }
+}
@@ -0,0 +1,69 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RefreshSchedulerTest {
+
+    private static final long MIN = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX = TimeUnit.MINUTES.toMillis(20);
+
+    private static RefreshScheduler scheduler(long initialMs) {
+        return new RefreshScheduler(MIN, MAX, initialMs, 0.15, new Random(7));
+    }
+
+    /** Newest first, {@code gapSec} apart, the newest at {@code newest}. */
+    private static List<NewsEntry> feed(long newest, int count, long gapSec) {
+        List<NewsEntry> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(new NewsEntry("t" + i, "", "l" + (newest - i * gapSec), "", newest - i * gapSec));
+        }
+        return list;
+    }
+
+    @Test
+    public void jitteredDelaysStayWithinTheBounds() {
+        RefreshScheduler atFloor   = scheduler(MIN);
+        RefreshScheduler atCeiling = scheduler(MAX);
+        for (int i = 0; i < 1000; i++) {
+            long low  = atFloor.nextDelayMs();
+            long high = atCeiling.nextDelayMs();
+            assertTrue(low  >= MIN && low  <= MIN * 1.15);
+            assertTrue(high <= MAX && high >= MAX * 0.85);
+        }
+    }
+
+    @Test
+    public void startsFromTheInitialInterval() {
+        assertEquals(TimeUnit.MINUTES.toMillis(3), scheduler(TimeUnit.MINUTES.toMillis(3)).getIntervalMs());
+    }
+
+    @Test
+    public void busyFeedPollsAtTheFloor() {
+        RefreshScheduler s = scheduler(TimeUnit.MINUTES.toMillis(3));
+        s.onPoll(feed(1_000_000, 20, 30)); // a headline every 30 s
+
+        assertEquals(MIN, s.getIntervalMs());
+    }
+
+    @Test
+    public void quietPollsStretchTheInterval() {
+        RefreshScheduler s = scheduler(TimeUnit.MINUTES.toMillis(3));
+        s.onPoll(feed(1_000_000, 20, 600)); // one every 10 minutes
+        long before = s.getIntervalMs();
+
+        s.onPoll(feed(1_000_000, 20, 600)); // nothing new
+        s.onPoll(null);                     // failed
+
+        assertTrue(s.getIntervalMs() > before);
+        for (int i = 0; i < 20; i++) s.onPoll(null);
+        assertEquals(MAX, s.getIntervalMs());
+    }
+}
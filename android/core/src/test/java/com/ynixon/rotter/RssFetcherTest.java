@@ -0,0 +1,85 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RssFetcherTest {
+
+    private static NewsEntry entry(String link, long ts) {
+        return new NewsEntry("title " + link, "", link, "", ts);
+    }
+
+    private static List<NewsEntry> merge(List<NewsEntry> a, List<NewsEntry> b) {
+        List<List<NewsEntry>> lists = new ArrayList<>();
+        lists.add(a);
+        lists.add(b);
+        return RssFetcher.mergeNewestFirst(lists);
+    }
+
+    @Test
+    public void interleavesFeedsNewestFirst() {
+        NewsEntry a5 = entry("a5", 500), a3 = entry("a3", 300), a1 = entry("a1", 100);
+        NewsEntry b4 = entry("b4", 400), b2 = entry("b2", 200);
+        NewsEntry c6 = entry("c6", 600);
+
+        List<List<NewsEntry>> lists = new ArrayList<>();
+        lists.add(Arrays.asList(a5, a3, a1));
+        lists.add(Arrays.asList(b4, b2));
+        lists.add(Arrays.asList(c6));
+
+        assertEquals(Arrays.asList(c6, a5, b4, a3, b2, a1), RssFetcher.mergeNewestFirst(lists));
+    }
+
+    @Test
+    public void keepsTheFirstEntryOfEveryKey() {
+        NewsEntry first = entry("same", 300);
+        NewsEntry again = entry("same", 300);
+
+        List<NewsEntry> merged = merge(Arrays.asList(first, entry("x", 100)), Arrays.asList(again));
+
+        assertEquals(2, merged.size());
+        assertSame(first, merged.get(0));
+    }
+
+    @Test
+    public void handlesEmptyInput() {
+        assertTrue(RssFetcher.mergeNewestFirst(Collections.<List<NewsEntry>>emptyList()).isEmpty());
+        NewsEntry a = entry("a", 100);
+        assertEquals(Arrays.asList(a),
+                merge(Collections.<NewsEntry>emptyList(), Arrays.asList(a)));
+    }
+
+    @Test
+    public void matchesASortOfTheConcatenation() {
+        Random random = new Random(42);
+        List<List<NewsEntry>> lists = new ArrayList<>();
+        List<NewsEntry> all = new ArrayList<>();
+        for (int f = 0; f < 6; f++) {
+            List<NewsEntry> feed = new ArrayList<>();
+            long ts = 1_000_000;
+            for (int i = 0; i < 200; i++) {
+                ts -= 1 + random.nextInt(120);
+                feed.add(entry(f + "/" + i, ts));
+            }
+            lists.add(feed);
+            all.addAll(feed);
+        }
+        Collections.sort(all, (x, y) -> Long.compare(y.getTimestamp(), x.getTimestamp()));
+
+        List<NewsEntry> merged = RssFetcher.mergeNewestFirst(lists);
+
+        assertEquals(all.size(), merged.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.get(i).getTimestamp(), merged.get(i).getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ynixon.rotter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SearchIndexTest {
+
+    private static final long NOW_MS = 1_700_000_000_000L;
+    private static final long DAY_MS = TimeUnit.HOURS.toMillis(24);
+
+    private final SearchIndex index = new SearchIndex(DAY_MS);
+
+    private static NewsEntry entry(String link, String title, long ageSeconds) {
+        return new NewsEntry(title, "", link, "", NOW_MS / 1000 - ageSeconds);
+    }
+
+    private List<NewsEntry> search(String query) {
+        return index.search(query, 50);
+    }
+
+    @Test
+    public void dropsNiqqud() {
+        // "שָׁלוֹם עליכם"
+        NewsEntry e = entry("1", "\u05E9\u05B8\u05C1\u05DC\u05D5\u05B9\u05DD \u05E2\u05DC\u05D9\u05DB\u05DD", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+
+        assertEquals(Arrays.asList(e), search("\u05E9\u05DC\u05D5\u05DD")); // שלום
+    }
+
+    @Test
+    public void foldsFinalLetters() {
+        // "ארץ ישראל"
+        NewsEntry e = entry("1", "\u05D0\u05E8\u05E5 \u05D9\u05E9\u05E8\u05D0\u05DC", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+
+        assertEquals(Arrays.asList(e), search("\u05D0\u05E8\u05E5")); // ארץ
+        assertEquals(Arrays.asList(e), search("\u05D0\u05E8\u05E6")); // ארצ
+    }
+
+    @Test
+    public void ignoresAcronymMarks() {
+        // "דובר צה"ל"
+        NewsEntry e = entry("1", "\u05D3\u05D5\u05D1\u05E8 \u05E6\u05D4\"\u05DC", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+
+        assertEquals(Arrays.asList(e), search("\u05E6\u05D4\u05DC"));       // צהל
+        assertEquals(Arrays.asList(e), search("\u05E6\u05D4\u05F4\u05DC"));   // צה״ל (gershayim)
+    }
+
+    @Test
+    public void findsWordsBehindPrefixLetters() {
+        // "בממשלה" and "והממשלה"
+        NewsEntry b = entry("1", "\u05D4\u05E6\u05D1\u05E2\u05D4 \u05D1\u05DE\u05DE\u05E9\u05DC\u05D4", 60);
+        NewsEntry v = entry("2", "\u05D5\u05D4\u05DE\u05DE\u05E9\u05DC\u05D4 \u05D4\u05D7\u05DC\u05D9\u05D8\u05D4", 120);
+        index.update(Arrays.asList(b, v), NOW_MS);
+
+        assertEquals(Arrays.asList(b, v), search("\u05DE\u05DE\u05E9\u05DC\u05D4")); // ממשלה
+    }
+
+    @Test
+    public void queryWordsMatchAsPrefixes() {
+        NewsEntry e = entry("1", "Breaking: government decision", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+
+        assertEquals(Arrays.asList(e), search("gov"));
+        assertEquals(Arrays.asList(e), search("GOVERNMENT"));
+        assertTrue(search("governments").isEmpty());
+    }
+
+    @Test
+    public void everyQueryWordMustMatch() {
+        NewsEntry a = entry("1", "rockets fired at the north", 60);
+        NewsEntry b = entry("2", "rain expected in the north", 120);
+        index.update(Arrays.asList(a, b), NOW_MS);
+
+        assertEquals(Arrays.asList(a, b), search("north"));
+        assertEquals(Arrays.asList(a), search("north rockets"));
+        assertTrue(search("north snow").isEmpty());
+        assertTrue(search("  ").isEmpty());
+    }
+
+    @Test
+    public void resultsAreNewestFirstAndLimited() {
+        NewsEntry old = entry("1", "update on the storm", 3600);
+        NewsEntry mid = entry("2", "storm reaches the coast", 1800);
+        NewsEntry fresh = entry("3", "storm over", 60);
+        index.update(Arrays.asList(old, fresh, mid), NOW_MS);
+
+        assertEquals(Arrays.asList(fresh, mid, old), search("storm"));
+        assertEquals(Arrays.asList(fresh), index.search("storm", 1));
+    }
+
+    @Test
+    public void searchesBodiesOnceLoaded() {
+        NewsEntry e = entry("http://rotter.net/1", "headline only", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+        assertTrue(search("parliament").isEmpty());
+
+        index.addBody(e.getLink(), "The parliament voted late at night.");
+
+        assertEquals(Arrays.asList(e), search("parliament"));
+        assertEquals(Arrays.asList(e), search("headline"));
+        assertEquals(1, index.size());
+        assertEquals(1, index.getBodyCount());
+    }
+
+    @Test
+    public void storiesAgeOut() {
+        NewsEntry e = entry("1", "yesterday's news", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+
+        index.update(Collections.<NewsEntry>emptyList(), NOW_MS + DAY_MS);
+
+        assertEquals(0, index.size());
+        assertTrue(search("news").isEmpty());
+    }
+
+    @Test
+    public void reindexingTheSameStoryIsANoOp() {
+        NewsEntry e = entry("1", "same story", 60);
+        index.update(Collections.singletonList(e), NOW_MS);
+        index.update(Collections.singletonList(entry("1", "same story", 60)), NOW_MS);
+
+        assertEquals(1, index.size());
+        assertEquals(Arrays.asList(e), search("story"));
+    }
+}
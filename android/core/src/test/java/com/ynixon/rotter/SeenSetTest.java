@@ -0,0 +1,128 @@
+package com.ynixon.rotter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SeenSetTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long NOW    = 20_000 * DAY_MS + 3_600_000L;
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private static NewsEntry entry(String link) {
+        return new NewsEntry(link, "", "http://x/" + link, "", 1_700_000_000L);
+    }
+
+    @Test
+    public void remembersWhatWasAdded() {
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW);
+
+        assertTrue(seen.contains(entry("a"), NOW));
+        assertFalse(seen.contains(entry("b"), NOW));
+    }
+
+    @Test
+    public void forgetsDaysThatLeftTheWindow() {
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW);
+
+        assertTrue(seen.contains(entry("a"), NOW + 3 * DAY_MS));
+        // Nothing was added since, so the slot still holds that day: it must not count
+        assertFalse(seen.contains(entry("a"), NOW + 4 * DAY_MS));
+    }
+
+    @Test
+    public void reusingASlotClearsTheDayItHeld() {
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW);
+        seen.add(entry("b"), NOW + 4 * DAY_MS); // same slot, four days on
+
+        assertFalse(seen.contains(entry("a"), NOW + 4 * DAY_MS));
+        assertTrue(seen.contains(entry("b"), NOW + 4 * DAY_MS));
+    }
+
+    @Test
+    public void keepsEveryDayInTheWindow() {
+        SeenSet seen = new SeenSet();
+        for (int d = 0; d < 4; d++) seen.add(entry("day" + d), NOW + d * DAY_MS);
+
+        for (int d = 0; d < 4; d++) assertTrue(seen.contains(entry("day" + d), NOW + 3 * DAY_MS));
+    }
+
+    @Test
+    public void aDayAheadOfTheClockDoesNotCount() {
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW + DAY_MS);
+
+        assertFalse(seen.contains(entry("a"), NOW));
+    }
+
+    @Test
+    public void savesAndLoads() {
+        File file = new File(tmp.getRoot(), "seen.bin");
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW);
+        seen.add(entry("b"), NOW + DAY_MS);
+        assertTrue(seen.save(file));
+
+        SeenSet loaded = SeenSet.load(file);
+
+        assertNotNull(loaded);
+        assertTrue(loaded.contains(entry("a"), NOW + DAY_MS));
+        assertTrue(loaded.contains(entry("b"), NOW + DAY_MS));
+        assertFalse(loaded.contains(entry("c"), NOW + DAY_MS));
+    }
+
+    @Test
+    public void mergingKeepsBothSides() {
+        SeenSet stored = new SeenSet();
+        stored.add(entry("old"), NOW);
+        SeenSet live = new SeenSet();
+        live.add(entry("new"), NOW);
+
+        live.merge(stored);
+
+        assertTrue(live.contains(entry("old"), NOW));
+        assertTrue(live.contains(entry("new"), NOW));
+    }
+
+    @Test
+    public void missingOrCorruptFilesLoadAsNull() throws IOException {
+        File file = new File(tmp.getRoot(), "seen.bin");
+        assertNull(SeenSet.load(file));
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        assertNull(SeenSet.load(file));
+    }
+
+    @Test
+    public void aTruncatedFileLoadsAsNull() throws IOException {
+        File file = new File(tmp.getRoot(), "seen.bin");
+        SeenSet seen = new SeenSet();
+        seen.add(entry("a"), NOW);
+        assertTrue(seen.save(file));
+
+        byte[] saved = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(saved, saved.length / 2));
+
+        assertNull(SeenSet.load(file));
+    }
+}
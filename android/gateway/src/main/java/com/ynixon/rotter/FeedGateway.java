@@ -0,0 +1,330 @@
+package com.ynixon.rotter;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Headless feed gateway: polls rotter.net once per interval with the app's own fetch, parse
+ * and extract code and serves the result to any number of clients from memory.
+ *
+ * <ul>
+ *   <li>{@code GET /feed.xml} — the current {@link FeedSnapshot}, with ETag/Last-Modified;
+ *       conditional requests get a 304, so an unchanged feed costs clients a header.</li>
+ *   <li>{@code GET /article?url=<rotter.net link>} — extracted body as UTF-8 text, 204 when
+ *       the page has none, 502 when the upstream fetch failed and 504 when it took too
+ *       long. Concurrent requests for one story share one upstream
+ *       download ({@link ArticleFetchCoordinator}); bodies stay in a bounded {@link BodyCache}.</li>
+ *   <li>{@code GET /metrics} — poll, cache and fetch statistics as plain text.</li>
+ * </ul>
+ *
+ * <p>Arguments are {@code key=value} pairs: {@code port} (8080), {@code cache} (body cache
+ * directory), {@code pollMin}/{@code pollMax} (seconds between upstream polls, 30/300) and
+ * {@code threads} (request handlers, 32).
+ */
+public final class FeedGateway {
+
+    private static final int    BODY_CACHE_MEMORY_CHARS = 8 * 1024 * 1024;
+    private static final long   BODY_CACHE_DISK_BYTES   = 64L * 1024 * 1024;
+    private static final long   BODY_CACHE_TTL_MS       = TimeUnit.HOURS.toMillis(24);
+    private static final long   ARTICLE_WAIT_MS         = 30_000;
+    private static final int    GZIP_MIN_BYTES          = 1024;
+    private static final double POLL_JITTER             = 0.1;
+
+    private final AtomicReference<FeedSnapshot> snapshot = new AtomicReference<>();
+    private final RefreshScheduler        scheduler;
+    private final BodyCache               bodies;
+    private final ArticleFetchCoordinator articles;
+    private final HttpServer              server;
+    private final ExecutorService         handlers;
+    private volatile long lastPollMs;
+
+    FeedGateway(int port, File cacheDir, long pollMinMs, long pollMaxMs, int threads) throws IOException {
+        AppExecutors executors = AppExecutors.get();
+        scheduler = new RefreshScheduler(pollMinMs, pollMaxMs, pollMinMs * 2, POLL_JITTER);
+        bodies    = new BodyCache(cacheDir, BODY_CACHE_MEMORY_CHARS, BODY_CACHE_DISK_BYTES, BODY_CACHE_TTL_MS);
+        articles  = new ArticleFetchCoordinator(bodies, executors.io(), executors.cpu());
+
+        // Headers and body go out as separate writes; without TCP_NODELAY the body waits
+        // on the client's delayed ACK (~40 ms per response)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 256);
+        handlers = Executors.newFixedThreadPool(threads);
+        server.setExecutor(handlers);
+        server.createContext("/feed.xml", this::serveFeed);
+        server.createContext("/article", this::serveArticle);
+        server.createContext("/metrics", this::serveMetrics);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opt = parseArgs(args);
+        int  port    = Integer.parseInt(opt.getOrDefault("port", "8080"));
+        File cache   = new File(opt.getOrDefault("cache",
+                System.getProperty("java.io.tmpdir") + File.separator + "rotter-gateway"));
+        long pollMin = TimeUnit.SECONDS.toMillis(Long.parseLong(opt.getOrDefault("pollMin", "30")));
+        long pollMax = TimeUnit.SECONDS.toMillis(Long.parseLong(opt.getOrDefault("pollMax", "300")));
+        int  threads = Integer.parseInt(opt.getOrDefault("threads", "32"));
+
+        FeedGateway gateway = new FeedGateway(port, cache, pollMin, pollMax, threads);
+        gateway.start();
+        System.out.println("rotter feed gateway on port " + port);
+    }
+
+    void start() {
+        listen();
+        AppExecutors.get().scheduler().execute(this::poll);
+    }
+
+    /** Serves whatever has been published, without polling upstream (tests). */
+    void listen() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    int getPort() { return server.getAddress().getPort(); }
+
+    // ── Upstream ─────────────────────────────────────────────────────────────
+
+    /** One upstream poll; re-arms itself from the scheduler's interval. */
+    private void poll() {
+        try {
+            List<NewsEntry> polled = RssFetcher.fetch(RssFetcher.WINDOW_HOURS);
+            lastPollMs = System.currentTimeMillis();
+            scheduler.onPoll(polled);
+            // A failed poll keeps serving the previous snapshot
+            if (polled != null) publish(polled, lastPollMs);
+        } catch (RuntimeException e) {
+            FetchMetrics.error("gateway.poll", e);
+        } finally {
+            AppExecutors.get().scheduler().schedule(this::poll, scheduler.nextDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Serves {@code entries} from now on; an unchanged feed keeps its validators. */
+    void publish(List<NewsEntry> entries, long nowMs) {
+        FeedSnapshot previous = snapshot.get();
+        FeedSnapshot next = FeedSnapshot.build(entries, previous, nowMs);
+        if (next != previous) {
+            snapshot.set(next);
+            FetchMetrics.count("gateway.feed.rebuilt");
+        }
+    }
+
+    // ── Handlers ─────────────────────────────────────────────────────────────
+
+    private void serveFeed(HttpExchange ex) throws IOException {
+        try {
+            if (!"GET".equals(ex.getRequestMethod())) {
+                sendEmpty(ex, 405);
+                return;
+            }
+            FeedSnapshot snap = snapshot.get();
+            if (snap == null) {
+                // Not polled successfully yet
+                ex.getResponseHeaders().set("Retry-After", "10");
+                sendEmpty(ex, 503);
+                return;
+            }
+            Headers out = ex.getResponseHeaders();
+            out.set("ETag", snap.etag);
+            out.set("Last-Modified", snap.lastModified);
+            if (notModified(ex.getRequestHeaders(), snap.etag, snap.lastModified)) {
+                FetchMetrics.count("gateway.feed.304");
+                sendEmpty(ex, 304);
+                return;
+            }
+            FetchMetrics.count("gateway.feed.200");
+            boolean gzip = acceptsGzip(ex);
+            send(ex, "text/xml; charset=utf-8", gzip ? snap.gzip : snap.xml, gzip);
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void serveArticle(HttpExchange ex) throws IOException {
+        try {
+            if (!"GET".equals(ex.getRequestMethod())) {
+                sendEmpty(ex, 405);
+                return;
+            }
+            String url = queryParam(ex.getRequestURI(), "url");
+            if (!isRotterUrl(url)) {
+                sendEmpty(ex, 400);
+                return;
+            }
+            String body = bodies.getFromMemory(url);
+            if (body != null) {
+                FetchMetrics.count("gateway.article.memory");
+            } else {
+                try {
+                    body = load(url);
+                } catch (TimeoutException | InterruptedException e) {
+                    sendEmpty(ex, 504);
+                    return;
+                }
+            }
+            if (body == null) {
+                // Upstream failed; the client retries rather than settling for no body
+                FetchMetrics.count("gateway.article.failed");
+                sendEmpty(ex, 502);
+                return;
+            }
+            if (body.isEmpty()) {
+                // Nothing extractable: the app shows the headline only
+                sendEmpty(ex, 204);
+                return;
+            }
+            byte[] text = body.getBytes(StandardCharsets.UTF_8);
+            String etag = "\"" + FeedSnapshot.digest(text) + "\"";
+            ex.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+                sendEmpty(ex, 304);
+                return;
+            }
+            boolean gzip = text.length >= GZIP_MIN_BYTES && acceptsGzip(ex);
+            send(ex, "text/plain; charset=utf-8", gzip ? FeedSnapshot.gzip(text) : text, gzip);
+        } finally {
+            ex.close();
+        }
+    }
+
+    /**
+     * Waits for the coordinated load of {@code url}: its body, "" if the page has none, null
+     * if the upstream fetch failed.
+     */
+    private String load(String url) throws TimeoutException, InterruptedException {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        ArticleFetchCoordinator.Ticket ticket = articles.request(url, result::complete);
+        try {
+            return result.get(ARTICLE_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            ticket.cancel();
+            FetchMetrics.count("gateway.article.timeout");
+            throw e;
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; the callback only ever delivers a value
+            ticket.cancel();
+            return null;
+        } catch (InterruptedException e) {
+            ticket.cancel();
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private void serveMetrics(HttpExchange ex) throws IOException {
+        try {
+            StringBuilder sb = new StringBuilder();
+            FeedSnapshot snap = snapshot.get();
+            sb.append("feed ").append(snap != null ? snap.items + " items, etag " + snap.etag
+                    + ", modified " + snap.lastModified : "not yet polled").append('\n');
+            sb.append("last poll ").append(lastPollMs == 0 ? "never"
+                    : (System.currentTimeMillis() - lastPollMs) / 1000 + " s ago")
+              .append(", interval ").append(scheduler.getIntervalMs() / 1000).append(" s\n");
+            sb.append(String.format(Locale.US, "bodies hit rate %.0f%%, mem %d KB, disk %d KB\n",
+                    bodies.getHitRate() * 100, bodies.getMemoryBytes() / 1024, bodies.getDiskBytes() / 1024));
+            sb.append("article loads started ").append(articles.getStartedCount())
+              .append(", coalesced ").append(articles.getCoalescedCount()).append('\n');
+            for (HostGuard g : HostGuard.all()) sb.append(g).append('\n');
+            sb.append('\n').append(FetchMetrics.dump());
+            send(ex, "text/plain; charset=utf-8", sb.toString().getBytes(StandardCharsets.UTF_8), false);
+        } finally {
+            ex.close();
+        }
+    }
+
+    // ── HTTP helpers ─────────────────────────────────────────────────────────
+
+    /** If-None-Match wins when present; otherwise an exact If-Modified-Since echo. */
+    private static boolean notModified(Headers in, String etag, String lastModified) {
+        String inm = in.getFirst("If-None-Match");
+        if (inm != null) return inm.equals(etag);
+        return lastModified.equals(in.getFirst("If-Modified-Since"));
+    }
+
+    private static boolean acceptsGzip(HttpExchange ex) {
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.contains("gzip");
+    }
+
+    private static void send(HttpExchange ex, String type, byte[] body, boolean gzipped) throws IOException {
+        Headers out = ex.getResponseHeaders();
+        out.set("Content-Type", type);
+        out.set("Vary", "Accept-Encoding");
+        if (gzipped) out.set("Content-Encoding", "gzip");
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static void sendEmpty(HttpExchange ex, int code) throws IOException {
+        ex.sendResponseHeaders(code, -1);
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                try {
+                    return URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+                } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Only rotter.net pages: the gateway must not become an open proxy. */
+    static boolean isRotterUrl(String url) {
+        if (url == null) return false;
+        try {
+            URI u = new URI(url);
+            String host = u.getHost();
+            return ("http".equals(u.getScheme()) || "https".equals(u.getScheme()))
+                    && host != null
+                    && (host.equals("rotter.net") || host.endsWith(".rotter.net"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opt = new LinkedHashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("expected key=value, got " + a);
+            opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return opt;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ynixon.rotter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One encoded copy of the feed as the gateway serves it: a compact RSS 2.0 document
+ * (UTF-8, only the fields the app reads, tags already stripped) plus its gzip form and
+ * validators. Built once per upstream change and then served from memory as-is, so
+ * answering a client is a header write and a byte copy.
+ */
+final class FeedSnapshot {
+
+    final byte[] xml;
+    final byte[] gzip;
+    final String etag;
+    final String lastModified;
+    final int    items;
+
+    private FeedSnapshot(byte[] xml, byte[] gzip, String etag, String lastModified, int items) {
+        this.xml          = xml;
+        this.gzip         = gzip;
+        this.etag         = etag;
+        this.lastModified = lastModified;
+        this.items        = items;
+    }
+
+    /**
+     * Encodes {@code entries} (newest first). Returns {@code previous} itself when the
+     * document is unchanged, so its validators keep answering 304.
+     */
+    static FeedSnapshot build(List<NewsEntry> entries, FeedSnapshot previous, long nowMs) {
+        byte[] xml = encode(entries);
+        String etag = "\"" + digest(xml) + "\"";
+        if (previous != null && previous.etag.equals(etag)) return previous;
+        return new FeedSnapshot(xml, gzip(xml), etag, httpDate(nowMs), entries.size());
+    }
+
+    // ── Encoding ─────────────────────────────────────────────────────────────
+
+    private static byte[] encode(List<NewsEntry> entries) {
+        SimpleDateFormat rfc822 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US);
+        rfc822.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        StringBuilder sb = new StringBuilder(128 + entries.size() * 160);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel>\n");
+        for (NewsEntry e : entries) {
+            sb.append("<item><title>");
+            escape(sb, e.getTitle());
+            sb.append("</title>");
+            if (e.getLink() != null) {
+                sb.append("<link>");
+                escape(sb, e.getLink());
+                sb.append("</link>");
+            }
+            String desc = e.getDescription();
+            if (desc != null && !desc.isEmpty()) {
+                sb.append("<description>");
+                escape(sb, desc);
+                sb.append("</description>");
+            }
+            sb.append("<pubDate>").append(rfc822.format(new Date(e.getTimestamp() * 1000L)))
+              .append("</pubDate></item>\n");
+        }
+        sb.append("</channel></rss>\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<': sb.append("&lt;");  break;
+                case '>': sb.append("&gt;");  break;
+                case '&': sb.append("&amp;"); break;
+                default:  sb.append(c);
+            }
+        }
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory stream
+        }
+        return bos.toByteArray();
+    }
+
+    /** Short content hash, used as a strong ETag. */
+    static String digest(byte[] data) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-1").digest(data);
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) hex.append(String.format("%02x", d[i]));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-1 is mandatory on every JVM
+        }
+    }
+
+    static String httpDate(long ms) {
+        SimpleDateFormat fmt = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        fmt.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return fmt.format(new Date(ms));
+    }
+}
@@ -0,0 +1,148 @@
+package com.ynixon.rotter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class FeedGatewayTest {
+
+    private static final String ARTICLE = "http://rotter.net/forum/scoops1/1.shtml";
+    private static final String MISSING = "http://rotter.net/forum/scoops1/missing.shtml";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    // Stands in for the pages upstream: the gateway loads bodies through it
+    private HttpServer upstream;
+    private FeedGateway gateway;
+
+    @Before
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstream.createContext("/article", this::serveUpstreamArticle);
+        upstream.start();
+        ArticleFetcher.setGateway("http://127.0.0.1:" + upstream.getAddress().getPort());
+
+        gateway = new FeedGateway(0, tmp.newFolder("bodies"), 30_000, 300_000, 4);
+        gateway.listen();
+    }
+
+    @After
+    public void tearDown() {
+        gateway.stop();
+        upstream.stop(0);
+        ArticleFetcher.setGateway(null);
+    }
+
+    private void serveUpstreamArticle(HttpExchange ex) throws IOException {
+        try {
+            if (ex.getRequestURI().getRawQuery().contains("missing")) {
+                ex.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = "the story".getBytes(StandardCharsets.UTF_8);
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private HttpURLConnection get(String path, String ifNoneMatch) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + gateway.getPort() + path);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        if (ifNoneMatch != null) conn.setRequestProperty("If-None-Match", ifNoneMatch);
+        return conn;
+    }
+
+    private static String article(String url) throws IOException {
+        return "/article?url=" + URLEncoder.encode(url, "UTF-8");
+    }
+
+    private static NewsEntry entry(String title) {
+        return new NewsEntry(title, "", "http://rotter.net/" + title, "", 1_700_000_000L);
+    }
+
+    @Test
+    public void feedIsUnavailableUntilTheFirstPoll() throws IOException {
+        HttpURLConnection conn = get("/feed.xml", null);
+
+        assertEquals(503, conn.getResponseCode());
+        assertEquals("10", conn.getHeaderField("Retry-After"));
+    }
+
+    @Test
+    public void feedAnswers304UntilItChanges() throws IOException {
+        gateway.publish(Collections.singletonList(entry("first")), 1_000L);
+        HttpURLConnection full = get("/feed.xml", null);
+        assertEquals(200, full.getResponseCode());
+        String etag = full.getHeaderField("ETag");
+        assertNotNull(etag);
+
+        assertEquals(304, get("/feed.xml", etag).getResponseCode());
+
+        // Re-publishing the same entries keeps the validators
+        gateway.publish(Collections.singletonList(entry("first")), 2_000L);
+        assertEquals(304, get("/feed.xml", etag).getResponseCode());
+
+        gateway.publish(Arrays.asList(entry("second"), entry("first")), 3_000L);
+        assertEquals(200, get("/feed.xml", etag).getResponseCode());
+    }
+
+    @Test
+    public void articleAnswers304ForItsETag() throws IOException {
+        HttpURLConnection full = get(article(ARTICLE), null);
+        assertEquals(200, full.getResponseCode());
+        String etag = full.getHeaderField("ETag");
+        assertNotNull(etag);
+
+        assertEquals(304, get(article(ARTICLE), etag).getResponseCode());
+    }
+
+    @Test
+    public void rejectsArticlesOffRotter() throws IOException {
+        assertEquals(400, get(article("http://example.com/1.shtml"), null).getResponseCode());
+        assertEquals(400, get("/article", null).getResponseCode());
+    }
+
+    @Test
+    public void upstreamFailureIs502() throws IOException {
+        assertEquals(502, get(article(MISSING), null).getResponseCode());
+    }
+
+    @Test
+    public void onlyRotterPagesAreProxied() {
+        assertTrue(FeedGateway.isRotterUrl("http://rotter.net/forum/1.shtml"));
+        assertTrue(FeedGateway.isRotterUrl("https://www.rotter.net/forum/1.shtml"));
+
+        assertFalse(FeedGateway.isRotterUrl(null));
+        assertFalse(FeedGateway.isRotterUrl("ftp://rotter.net/x"));
+        assertFalse(FeedGateway.isRotterUrl("http://notrotter.net/x"));
+        assertFalse(FeedGateway.isRotterUrl("http://rotter.net.example.com/x"));
+        assertFalse(FeedGateway.isRotterUrl("http://example.com/?u=http://rotter.net/"));
+        assertFalse(FeedGateway.isRotterUrl("not a url"));
+    }
+}